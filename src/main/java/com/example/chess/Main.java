@@ -3,8 +3,15 @@ package com.example.chess;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import com.example.chess.ui.ChessUI;
+import com.example.chess.ui.SpriteAtlas;
 
 public class Main extends Application {
+  /** Decodes the piece images while the toolkit starts, before the first dialog. */
+  @Override
+  public void init() {
+    SpriteAtlas.preload();
+  }
+
   @Override
   public void start(Stage primaryStage) {
     new ChessUI(primaryStage).show();
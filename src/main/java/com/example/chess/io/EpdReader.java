@@ -0,0 +1,71 @@
+package com.example.chess.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads EPD one line at a time. Plain FEN lines are accepted too; their
+ * move counters are dropped. Blank lines and lines starting with '#' are skipped.
+ * A malformed line does not stop the reader: it comes back as a record
+ * whose {@link EpdRecord#toBoard()} throws, and reading goes on after it.
+ */
+public class EpdReader implements PositionSource {
+  private final BufferedReader in;
+  private long lineNumber;
+
+  public EpdReader(Reader in) {
+    this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+  }
+
+  public long getLineNumber() { return lineNumber; }
+
+  @Override
+  public EpdRecord next() throws IOException {
+    String line;
+    while ((line = in.readLine()) != null) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.charAt(0) == '#') continue;
+      try {
+        return parse(line);
+      } catch (IllegalArgumentException e) {
+        return EpdRecord.malformed(line, "line " + lineNumber + ": " + e.getMessage());
+      }
+    }
+    return null;
+  }
+
+  /** Parses a single EPD or FEN line. */
+  public static EpdRecord parse(String line) {
+    String[] f = line.trim().split("\\s+", 5);
+    if (f.length < 4) throw new IllegalArgumentException("Bad EPD: " + line);
+    String fen = f[0] + " " + f[1] + " " + f[2] + " " + f[3];
+    Map<String, String> ops = new LinkedHashMap<>();
+    if (f.length == 5) parseOperations(f[4], ops);
+    return new EpdRecord(fen, ops);
+  }
+
+  private static void parseOperations(String rest, Map<String, String> ops) {
+    for (String op : rest.split(";")) {
+      op = op.trim();
+      if (op.isEmpty()) continue;
+      // FEN move counters ("0 1") are not opcodes
+      if (Character.isDigit(op.charAt(0))) continue;
+      int sp = op.indexOf(' ');
+      String code  = sp < 0 ? op : op.substring(0, sp);
+      String value = sp < 0 ? "" : op.substring(sp + 1).trim();
+      if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+        value = value.substring(1, value.length() - 1);
+      }
+      ops.put(code, value);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
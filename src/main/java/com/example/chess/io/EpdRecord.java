@@ -0,0 +1,44 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One position from an EPD line: the FEN fields plus its opcodes (id, bm, ...).
+ * A line that could not be parsed still becomes a record, so a batch can
+ * report it in place; its {@link #toBoard()} throws.
+ */
+public class EpdRecord {
+  public final String fen;
+  public final Map<String, String> operations;
+  private final String error;
+
+  public EpdRecord(String fen, Map<String, String> operations) {
+    this(fen, operations, null);
+  }
+
+  private EpdRecord(String fen, Map<String, String> operations, String error) {
+    this.fen = fen;
+    this.operations = Collections.unmodifiableMap(new LinkedHashMap<>(operations));
+    this.error = error;
+  }
+
+  /** A record for a line that is not EPD; {@code fen} holds the line as read. */
+  static EpdRecord malformed(String line, String error) {
+    return new EpdRecord(line, Map.of(), error);
+  }
+
+  /** The "id" opcode, or {@code fallback} if there is none. */
+  public String id(String fallback) {
+    return operations.getOrDefault("id", fallback);
+  }
+
+  /** @throws IllegalArgumentException if the line or its FEN is malformed */
+  public Board toBoard() {
+    if (error != null) throw new IllegalArgumentException(error);
+    return new Board(fen);
+  }
+}
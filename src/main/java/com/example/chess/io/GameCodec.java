@@ -0,0 +1,136 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.logic.PositionCodec;
+import com.example.chess.model.Move;
+import com.example.chess.model.PieceType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Binary game encoding. Each move is stored as its index among the legal
+ * moves of the position it is played from, as a varint, so nearly every
+ * move takes one byte. The legal moves are sorted by {@link #packMove}, so
+ * the index does not depend on the order the move generator finds them in.
+ *
+ * Layout: flags byte (bits 0-1 result, bit 2 custom start), the start
+ * position if custom ({@link PositionCodec#BYTES} bytes), varint move
+ * count, then the move indices. Tags are not stored.
+ */
+public final class GameCodec {
+  private static final String[] RESULTS = {
+      PgnGame.UNFINISHED, PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW
+  };
+  private static final int CUSTOM_START = 4;
+
+  private GameCodec() {}
+
+  public static byte[] encode(PgnGame game) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(16 + game.getMoves().size());
+    String fen = game.getTag("FEN");
+    int flags = resultCode(game.getResult()) | (fen != null ? CUSTOM_START : 0);
+    out.write(flags);
+    Board board = game.startingBoard();
+    if (fen != null) out.writeBytes(PositionCodec.encode(board));
+    writeVarint(out, game.getMoves().size());
+    for (Move m : game.getMoves()) {
+      List<Move> legal = canonicalMoves(board);
+      int index = indexOf(legal, m);
+      if (index < 0) throw new IllegalArgumentException("Illegal move in game: " + m);
+      writeVarint(out, index);
+      board.applyMove(legal.get(index));
+    }
+    return out.toByteArray();
+  }
+
+  /** Decodes one record; the FEN tag is restored for custom starts. */
+  public static PgnGame decode(ByteBuffer in) {
+    PgnGame game = new PgnGame();
+    int flags = in.get() & 0xFF;
+    game.setResult(RESULTS[flags & 3]);
+    Board board;
+    if ((flags & CUSTOM_START) != 0) {
+      board = PositionCodec.decode(in);
+      game.setTag("FEN", board.toFen() + " 0 1");
+    } else {
+      board = new Board();
+    }
+    int count = readVarint(in);
+    for (int i = 0; i < count; i++) {
+      Move m = canonicalMoves(board).get(readVarint(in));
+      board.applyMove(m);
+      game.addMove(m);
+    }
+    return game;
+  }
+
+  /** The side to move's legal moves, sorted by {@link #packMove}. */
+  private static List<Move> canonicalMoves(Board board) {
+    List<Move> legal = new ArrayList<>(board.generateLegalMoves(board.getSideToMove()));
+    legal.sort(Comparator.comparingInt(GameCodec::packMove));
+    return legal;
+  }
+
+  private static int resultCode(String result) {
+    for (int i = 0; i < RESULTS.length; i++) {
+      if (RESULTS[i].equals(result)) return i;
+    }
+    return 0;
+  }
+
+  private static int indexOf(List<Move> legal, Move m) {
+    for (int i = 0; i < legal.size(); i++) {
+      Move x = legal.get(i);
+      if (x.fromRow == m.fromRow && x.fromCol == m.fromCol
+          && x.toRow == m.toRow && x.toCol == m.toCol && x.promotion == m.promotion) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * A move in 16 bits, with no position needed to read it back: from square
+   * and to square (row * 8 + col, 6 bits each), then the promotion's
+   * ordinal, 0 for none as pawns are never promoted to. Bit 15 stays clear.
+   */
+  public static short packMove(Move m) {
+    int promo = m.promotion == null ? 0 : m.promotion.ordinal();
+    return (short) (m.fromRow * 8 + m.fromCol | (m.toRow * 8 + m.toCol) << 6 | promo << 12);
+  }
+
+  public static Move unpackMove(int bits) {
+    int from = bits & 63, to = bits >> 6 & 63, promo = bits >> 12 & 7;
+    return new Move(from >> 3, from & 7, to >> 3, to & 7, promo == 0 ? null : PieceType.values()[promo]);
+  }
+
+  static void writeVarint(ByteArrayOutputStream out, int v) {
+    while ((v & ~0x7F) != 0) {
+      out.write((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    out.write(v);
+  }
+
+  static void writeVarint(ByteBuffer out, int v) {
+    while ((v & ~0x7F) != 0) {
+      out.put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    out.put((byte) v);
+  }
+
+  static int readVarint(ByteBuffer in) {
+    int v = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.get() & 0xFF;
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return v;
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+}
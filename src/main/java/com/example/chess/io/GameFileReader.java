@@ -0,0 +1,77 @@
+package com.example.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential scan of a game file through read-only memory mappings. The
+ * file is mapped in windows, so files larger than 2 GB work too.
+ * Not thread-safe; open one reader per scanning thread.
+ */
+public class GameFileReader implements Closeable {
+  private static final long WINDOW = 256L << 20;
+
+  private final FileChannel channel;
+  private final long size;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position = Long.BYTES;
+
+  public GameFileReader(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    size = channel.size();
+    checkHeader(channel);
+  }
+
+  static void checkHeader(FileChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+    if (channel.read(header, 0) != Long.BYTES || header.getLong(0) != GameFileWriter.MAGIC) {
+      throw new IOException("Not a game file");
+    }
+  }
+
+  /**
+   * The raw bytes of the next record, or null at end of file. The buffer is
+   * only valid until the next call.
+   */
+  public ByteBuffer nextRecord() throws IOException {
+    if (position >= size) return null;
+    // a length varint is at most 5 bytes; map the record start plus some slack
+    ensureMapped(position, Math.min(5, size - position));
+    int offset = (int) (position - windowStart);
+    ByteBuffer view = window.duplicate();
+    view.position(offset);
+    int length = GameCodec.readVarint(view);
+    long recordStart = windowStart + view.position();
+    if (recordStart + length > size) throw new IOException("Truncated record at " + position);
+    ensureMapped(recordStart, length);
+    ByteBuffer record = window.slice((int) (recordStart - windowStart), length);
+    position = recordStart + length;
+    return record;
+  }
+
+  /** The next game, or null at end of file. */
+  public PgnGame next() throws IOException {
+    ByteBuffer record = nextRecord();
+    return record == null ? null : GameCodec.decode(record);
+  }
+
+  private void ensureMapped(long start, long length) throws IOException {
+    if (window != null && start >= windowStart && start + length <= windowStart + window.capacity()) {
+      return;
+    }
+    windowStart = start;
+    long len = Math.min(Math.max(WINDOW, length), size - start);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, len);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends {@link GameCodec} records to a game file. Each record is prefixed
+ * with its varint length so readers can skip games without decoding them.
+ * Not thread-safe.
+ */
+public class GameFileWriter implements Closeable {
+  static final long MAGIC = 0x4348_4741_4D45_0001L; // "CHGAME" + version 1
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+  private long games;
+
+  /** Opens {@code file} for appending, creating it with a header if needed. */
+  public GameFileWriter(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    if (channel.size() == 0) {
+      buffer.putLong(MAGIC);
+    } else {
+      GameFileReader.checkHeader(channel);
+    }
+    channel.position(channel.size());
+  }
+
+  public void write(PgnGame game) throws IOException {
+    byte[] record = GameCodec.encode(game);
+    if (buffer.remaining() < record.length + 5) drain();
+    if (buffer.remaining() < record.length + 5) {
+      ByteBuffer big = ByteBuffer.allocate(record.length + 5);
+      GameCodec.writeVarint(big, record.length);
+      big.put(record).flip();
+      while (big.hasRemaining()) channel.write(big);
+    } else {
+      GameCodec.writeVarint(buffer, record.length);
+      buffer.put(record);
+    }
+    games++;
+  }
+
+  /** Games written through this writer. */
+  public long getGames() { return games; }
+
+  public void flush() throws IOException {
+    drain();
+    channel.force(false);
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) channel.write(buffer);
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      drain();
+    } finally {
+      channel.close();
+    }
+  }
+}
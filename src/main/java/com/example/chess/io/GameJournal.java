@@ -0,0 +1,407 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.logic.PositionCodec;
+import com.example.chess.logic.SkillLevel;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of the games in progress, so they survive a crash
+ * or restart. Many games share one file. Each game is a START record with
+ * its first position, then one MOVE record per ply. Every
+ * {@link #SNAPSHOT_PLIES} plies a SNAPSHOT record holds the whole
+ * position, and an END record retires the game.
+ *
+ * Opening a journal recovers it. The file is scanned up to the first
+ * record whose checksum fails, which is where a crash cut it short. Each
+ * unfinished game is rebuilt from its latest snapshot by replaying only
+ * the moves after it. The live games are then rewritten as snapshots into
+ * a fresh file, so finished games never pile up.
+ *
+ * Records are written into a memory-mapped region. A move costs one small
+ * copy and a checksum, with no system call, and survives the process
+ * dying at once. A background thread forces dirty pages to disk every
+ * {@link #FLUSH_MILLIS} ms. Losing power therefore loses at most that
+ * much, and the writes are batched without any caller waiting on the
+ * disk.
+ *
+ * Only one journal may have a file open at a time, across processes: it
+ * holds an exclusive lock on a ".lock" file next to it until closed.
+ *
+ * <p>File: long magic, then records in {@link #REGION_BYTES} regions,
+ * never spanning two. A record is int body length, int CRC32C of the
+ * body, then the body: byte type, long game id, payload. MOVE payload is
+ * the move in 16 bits, see {@link GameCodec#packMove}. START and SNAPSHOT hold a
+ * {@link PositionCodec} position and the halfmove clock; START adds a
+ * UTF-8 info string, see {@link #info}. Length 0 ends the journal and -1
+ * pads to the next region. Snapshots keep no earlier positions, so
+ * repetitions before a snapshot are not seen after recovery. Thread-safe.
+ */
+public class GameJournal implements Closeable {
+  static final long MAGIC = 0x4348_4A52_4E4C_0001L; // "CHJRNL" + version 1
+  /** Plies between snapshots, which bounds the replay per game. */
+  public static final int SNAPSHOT_PLIES = 32;
+  static final int REGION_BYTES = 4 << 20;
+  static final long FLUSH_MILLIS = 100;
+
+  private static final byte START = 1, MOVE = 2, SNAPSHOT = 3, END = 4;
+  private static final int HEADER = 2 * Integer.BYTES;
+  private static final int BODY = 1 + Long.BYTES;
+  private static final int PAD = -1;
+
+  /** An unfinished game rebuilt from the journal. */
+  public static final class Game {
+    public final long id;
+    /** What the caller stored with {@link #start}, e.g. players and level. */
+    public final String info;
+    public final Board board;
+    /** Moves replayed on top of the latest snapshot. */
+    public final int replayed;
+
+    Game(long id, String info, Board board, int replayed) {
+      this.id = id;
+      this.info = info;
+      this.board = board;
+      this.replayed = replayed;
+    }
+
+    /** The side the human plays, from an {@link #info} string; White if it has none. */
+    public Color human() {
+      return field(0).equals("BLACK") ? Color.BLACK : Color.WHITE;
+    }
+
+    /** The computer's skill level, from an {@link #info} string; null if it has none. */
+    public SkillLevel level() {
+      try {
+        return SkillLevel.valueOf(field(1));
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+    }
+
+    /** The human player's name, from an {@link #info} string; empty if it has none. */
+    public String player() {
+      return field(2);
+    }
+
+    private String field(int i) {
+      String[] fields = info.split("\t", 3);
+      return i < fields.length ? fields[i] : "";
+    }
+  }
+
+  /**
+   * The info string to {@link #start} a game with, so that whoever recovers
+   * it, the app or the server, reads it back through {@link Game#human},
+   * {@link Game#level} and {@link Game#player}: "COLOUR\tLEVEL\tplayer",
+   * with "-" for no level.
+   */
+  public static String info(Color human, SkillLevel level, String player) {
+    return human.name() + "\t" + (level == null ? "-" : level.name()) + "\t" + (player == null ? "" : player);
+  }
+
+  private final FileChannel lockChannel;
+  private final FileChannel channel;
+  private final Map<Long, Game> recovered = new LinkedHashMap<>();
+  private final Map<Long, Integer> sinceSnapshot = new HashMap<>();
+  private final CRC32C crc = new CRC32C();
+  private final ScheduledExecutorService flusher;
+  private MappedByteBuffer region;
+  private long regionStart;
+  private long nextId;
+  private volatile boolean dirty;
+
+  /**
+   * Opens or creates {@code file}, recovering the games it holds.
+   * @throws IOException also if another journal, in this or another
+   *     process, has the file open
+   */
+  public GameJournal(Path file) throws IOException {
+    // The lock is on a separate file, since recovery replaces the journal itself.
+    lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    try {
+      FileLock lock;
+      try {
+        lock = lockChannel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        lock = null;
+      }
+      if (lock == null) throw new IOException("Game journal is already open elsewhere: " + file);
+      channel = recover(file);
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      throw e;
+    }
+    flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "journal-flush");
+      t.setDaemon(true);
+      return t;
+    });
+    flusher.scheduleWithFixedDelay(this::forceIfDirty, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reads the games in {@code file}, rewrites it with only the live ones
+   * and maps its last region for appending; returns the open channel.
+   */
+  private FileChannel recover(Path file) throws IOException {
+    Map<Long, Live> live = new LinkedHashMap<>();
+    long maxId = 0;
+    if (Files.exists(file) && Files.size(file) > 0) maxId = scan(file, live);
+    recovered.putAll(rebuild(live));
+
+    // Rewrite only the live games, then switch to the new file.
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buf = ByteBuffer.allocate(REGION_BYTES);
+      buf.putLong(MAGIC);
+      for (Game g : recovered.values()) {
+        if (buf.remaining() < HEADER + BODY + snapshotBytes(g.info)) {
+          buf.putInt(PAD);
+          buf.position(buf.capacity());
+          write(out, buf);
+          buf.clear();
+        }
+        putRecord(buf, START, g.id, g.board, g.info, null);
+      }
+      write(out, buf);
+      out.force(true);
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      long end = ch.size();
+      regionStart = end - end % REGION_BYTES;
+      region = ch.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_BYTES);
+      region.position((int) (end - regionStart));
+    } catch (IOException | RuntimeException e) {
+      ch.close();
+      throw e;
+    }
+    for (Game g : recovered.values()) sinceSnapshot.put(g.id, 0);
+    nextId = maxId + 1;
+    return ch;
+  }
+
+  /** Unfinished games found when the journal was opened, by id. */
+  public Map<Long, Game> recovered() {
+    return Collections.unmodifiableMap(recovered);
+  }
+
+  /** A game id not used in this journal before. */
+  public synchronized long newGameId() {
+    return nextId++;
+  }
+
+  /** Starts journaling game {@code id} from {@code board}, with {@code info} for whoever resumes it. */
+  public synchronized void start(long id, Board board, String info) throws IOException {
+    nextId = Math.max(nextId, id + 1);
+    append(START, id, board, info == null ? "" : info, null);
+    sinceSnapshot.put(id, 0);
+  }
+
+  /** Records {@code m}, already played on {@code board}; every so often also the position. */
+  public synchronized void move(long id, Move m, Board board) throws IOException {
+    int plies = sinceSnapshot.merge(id, 1, Integer::sum);
+    if (plies >= SNAPSHOT_PLIES) {
+      snapshot(id, board);
+    } else {
+      append(MOVE, id, null, null, m);
+    }
+  }
+
+  /** Records the whole position, e.g. after moves were taken back. */
+  public synchronized void snapshot(long id, Board board) throws IOException {
+    append(SNAPSHOT, id, board, null, null);
+    sinceSnapshot.put(id, 0);
+  }
+
+  /** Retires game {@code id}; it will not be recovered. */
+  public synchronized void end(long id) throws IOException {
+    append(END, id, null, null, null);
+    sinceSnapshot.remove(id);
+  }
+
+  /** Forces everything written so far to disk now. */
+  public synchronized void flush() {
+    region.force();
+    dirty = false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    flusher.shutdownNow();
+    synchronized (this) {
+      try {
+        region.force();
+        channel.close();
+      } finally {
+        lockChannel.close();
+      }
+    }
+  }
+
+  private void forceIfDirty() {
+    MappedByteBuffer r;
+    synchronized (this) {
+      if (!dirty || !channel.isOpen()) return;
+      dirty = false;
+      r = region;
+    }
+    // outside the lock: a move never waits for the disk
+    r.force();
+  }
+
+  private void append(byte type, long id, Board board, String info, Move m) throws IOException {
+    int size = HEADER + BODY + (m != null ? 2 : board != null ? snapshotBytes(info) : 0);
+    if (region.remaining() < size) {
+      if (region.remaining() >= Integer.BYTES) region.putInt(PAD);
+      region.force();
+      regionStart += REGION_BYTES;
+      region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_BYTES);
+    }
+    putRecord(region, type, id, board, info, m);
+    dirty = true;
+  }
+
+  private void putRecord(ByteBuffer out, byte type, long id, Board board, String info, Move m) {
+    int start = out.position();
+    out.position(start + HEADER);
+    out.put(type).putLong(id);
+    if (m != null) {
+      out.putShort(GameCodec.packMove(m));
+    } else if (board != null) {
+      PositionCodec.encode(board, out);
+      out.put((byte) Math.min(255, board.getHalfmoveClock()));
+      if (type == START) {
+        byte[] text = info.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) text.length).put(text);
+      }
+    }
+    int end = out.position();
+    int length = end - start - HEADER;
+    ByteBuffer body = out.duplicate();
+    body.position(start + HEADER).limit(end);
+    crc.reset();
+    crc.update(body);
+    out.putInt(start + Integer.BYTES, (int) crc.getValue());
+    // the length goes in last: until then the record reads as the end of the journal
+    out.putInt(start, length);
+  }
+
+  private static int snapshotBytes(String info) {
+    return PositionCodec.BYTES + 1 + (info == null ? 0 : Short.BYTES + info.getBytes(StandardCharsets.UTF_8).length);
+  }
+
+  private static void write(FileChannel out, ByteBuffer buf) throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) out.write(buf);
+  }
+
+  /** One game's state during recovery: its latest snapshot and the moves since. */
+  private static final class Live {
+    String info;
+    byte[] snapshot;
+    final List<Move> tail = new ArrayList<>();
+  }
+
+  /** Reads every valid record into {@code live}; returns the largest game id seen. */
+  private static long scan(Path file, Map<Long, Live> live) throws IOException {
+    long maxId = 0;
+    CRC32C crc = new CRC32C();
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = in.size();
+      ByteBuffer magic = ByteBuffer.allocate(Long.BYTES);
+      if (in.read(magic, 0) != Long.BYTES || magic.getLong(0) != MAGIC) throw new IOException("Not a game journal: " + file);
+      scan:
+      for (long start = 0; start < size; start += REGION_BYTES) {
+        ByteBuffer r = in.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_BYTES, size - start));
+        if (start == 0) r.position(Long.BYTES);
+        while (r.remaining() >= HEADER) {
+          int length = r.getInt();
+          if (length == PAD) continue scan;
+          if (length < BODY || length > r.remaining() - Integer.BYTES) break scan;
+          int sum = r.getInt();
+          ByteBuffer body = r.slice(r.position(), length);
+          crc.reset();
+          crc.update(body.duplicate());
+          if ((int) crc.getValue() != sum) break scan;
+          r.position(r.position() + length);
+          byte type = body.get();
+          long id = body.getLong();
+          maxId = Math.max(maxId, id);
+          switch (type) {
+            case START: {
+              Live g = new Live();
+              g.snapshot = new byte[PositionCodec.BYTES + 1];
+              body.get(g.snapshot);
+              byte[] text = new byte[body.getShort() & 0xFFFF];
+              body.get(text);
+              g.info = new String(text, StandardCharsets.UTF_8);
+              live.put(id, g);
+              break;
+            }
+            case SNAPSHOT: {
+              Live g = live.get(id);
+              if (g == null) break;
+              body.get(g.snapshot);
+              g.tail.clear();
+              break;
+            }
+            case MOVE: {
+              Live g = live.get(id);
+              if (g != null) g.tail.add(GameCodec.unpackMove(body.getShort()));
+              break;
+            }
+            case END:
+              live.remove(id);
+              break;
+            default:
+              break scan;
+          }
+        }
+      }
+    }
+    return maxId;
+  }
+
+  private static Map<Long, Game> rebuild(Map<Long, Live> live) {
+    Map<Long, Game> games = new LinkedHashMap<>();
+    for (Map.Entry<Long, Live> e : live.entrySet()) {
+      Live g = e.getValue();
+      Board snapshot = PositionCodec.decode(g.snapshot);
+      int clock = g.snapshot[PositionCodec.BYTES] & 0xFF;
+      Board board = new Board(snapshot.toFen() + " " + clock + " 1");
+      for (Move m : g.tail) board.applyMove(m);
+      games.put(e.getKey(), new Game(e.getKey(), g.info, board, g.tail.size()));
+    }
+    return games;
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.chess.io;
+
+import java.io.IOException;
+
+/**
+ * A game that could not be read. The reader has already skipped past it,
+ * so calling {@link PgnReader#next()} again continues with the next game.
+ */
+public class PgnFormatException extends IOException {
+  private static final long serialVersionUID = 1L;
+
+  private final long gameNumber;
+
+  public PgnFormatException(long gameNumber, String message, Throwable cause) {
+    super("Game " + gameNumber + ": " + message, cause);
+    this.gameNumber = gameNumber;
+  }
+
+  public long getGameNumber() { return gameNumber; }
+}
@@ -0,0 +1,45 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** One game record: its tag pairs, the moves of the main line and the result. */
+public class PgnGame {
+  public static final String WHITE_WINS = "1-0";
+  public static final String BLACK_WINS = "0-1";
+  public static final String DRAW       = "1/2-1/2";
+  public static final String UNFINISHED = "*";
+
+  private final Map<String, String> tags = new LinkedHashMap<>();
+  private final List<Move> moves = new ArrayList<>();
+  private String result = UNFINISHED;
+
+  public String getTag(String name) { return tags.get(name); }
+
+  public void setTag(String name, String value) { tags.put(name, value); }
+
+  public Map<String, String> getTags() { return Collections.unmodifiableMap(tags); }
+
+  public List<Move> getMoves() { return Collections.unmodifiableList(moves); }
+
+  public void addMove(Move m) { moves.add(m); }
+
+  /** Takes back the last move, returning it, or null if there are none. */
+  public Move removeLastMove() { return moves.isEmpty() ? null : moves.remove(moves.size() - 1); }
+
+  public String getResult() { return result; }
+
+  public void setResult(String result) { this.result = result; }
+
+  /** The position the moves start from: the FEN tag if present, else the standard setup. */
+  public Board startingBoard() {
+    String fen = tags.get("FEN");
+    return fen == null ? new Board() : new Board(fen);
+  }
+}
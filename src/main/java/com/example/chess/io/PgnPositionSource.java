@@ -0,0 +1,60 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Every position of every game in a PGN stream, from the starting position
+ * through the final one. Ids are "game:ply". Finished games also label
+ * each position with the game's result as a "c9" opcode, as tuning sets do.
+ * A game that fails to parse, or whose FEN tag is bad, comes back as one
+ * malformed record, so callers report it as they do a bad EPD line.
+ */
+public class PgnPositionSource implements PositionSource {
+  private final PgnReader games;
+  private PgnGame game;
+  private Board board;
+  private int ply;
+
+  public PgnPositionSource(PgnReader games) {
+    this.games = games;
+  }
+
+  @Override
+  public EpdRecord next() throws IOException {
+    while (game == null || ply > game.getMoves().size()) {
+      try {
+        game = games.next();
+      } catch (PgnFormatException e) {
+        game = null;
+        return EpdRecord.malformed("", e.getMessage());
+      }
+      if (game == null) return null;
+      try {
+        board = game.startingBoard();
+      } catch (IllegalArgumentException e) {
+        game = null;
+        return EpdRecord.malformed("", "Game " + games.getGameNumber() + ": " + e.getMessage());
+      }
+      ply = 0;
+    }
+    String id = games.getGameNumber() + ":" + ply;
+    String result = game.getResult();
+    EpdRecord rec = new EpdRecord(board.toFen(), result == null || result.equals(PgnGame.UNFINISHED)
+        ? Map.of("id", id) : Map.of("id", id, "c9", result));
+    if (ply < game.getMoves().size()) {
+      Move m = game.getMoves().get(ply);
+      board.applyMove(m);
+    }
+    ply++;
+    return rec;
+  }
+
+  @Override
+  public void close() throws IOException {
+    games.close();
+  }
+}
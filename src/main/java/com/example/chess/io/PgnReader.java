@@ -0,0 +1,163 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads PGN one game at a time, so a database of any size is processed in
+ * the memory of its largest game. Comments, variations and NAGs are
+ * skipped; main-line moves are decoded against the game's own board.
+ */
+public class PgnReader implements Closeable {
+  private final Reader in;
+  private int pushback = -2;
+  private long gameNumber;
+
+  public PgnReader(Reader in) {
+    this.in = in instanceof BufferedReader ? in : new BufferedReader(in, 1 << 16);
+  }
+
+  /** Games returned or rejected so far. */
+  public long getGameNumber() { return gameNumber; }
+
+  /**
+   * The next game, or null at end of input.
+   *
+   * @throws PgnFormatException if the game has a bad tag or move; the rest of
+   *         that game is skipped first
+   */
+  public PgnGame next() throws IOException {
+    PgnGame game = new PgnGame();
+    Board board = null;
+    boolean started = false, inMoves = false;
+    int depth = 0;
+    String error = null;
+    Exception cause = null;
+    StringBuilder word = new StringBuilder(16);
+
+    int ch;
+    while ((ch = read()) != -1) {
+      if (Character.isWhitespace(ch)) continue;
+      switch (ch) {
+        case '[':
+          if (inMoves && depth == 0) {
+            // a new tag section without a result token: the game ended
+            unread(ch);
+            return finish(game, error, cause);
+          }
+          started = true;
+          String tag = readUntil(']');
+          if (!inMoves) parseTag(game, tag);
+          continue;
+        case '{':
+          inMoves = true;
+          readUntil('}');
+          continue;
+        case ';':
+          readUntil('\n');
+          continue;
+        case '(':
+          depth++;
+          continue;
+        case ')':
+          if (depth > 0) depth--;
+          continue;
+        default:
+          break;
+      }
+
+      started = inMoves = true;
+      word.setLength(0);
+      word.append((char) ch);
+      while ((ch = read()) != -1 && !Character.isWhitespace(ch) && "{}()[];".indexOf(ch) < 0) {
+        word.append((char) ch);
+      }
+      if (ch != -1) unread(ch);
+      if (depth > 0) continue;
+
+      String token = word.toString();
+      if (isResult(token)) {
+        game.setResult(token);
+        return finish(game, error, cause);
+      }
+      if (token.charAt(0) == '$' || token.equals("e.p.")) continue;
+      token = stripMoveNumber(token);
+      if (token.isEmpty() || error != null) continue;
+      try {
+        if (board == null) board = game.startingBoard();
+        Move m = San.decode(board, token);
+        board.applyMove(m);
+        game.addMove(m);
+      } catch (IllegalArgumentException e) {
+        error = e.getMessage();
+        cause = e;
+      }
+    }
+    return started ? finish(game, error, cause) : null;
+  }
+
+  private PgnGame finish(PgnGame game, String error, Exception cause) throws PgnFormatException {
+    gameNumber++;
+    if (error != null) throw new PgnFormatException(gameNumber, error, cause);
+    return game;
+  }
+
+  private static void parseTag(PgnGame game, String tag) {
+    int q1 = tag.indexOf('"');
+    int q2 = tag.lastIndexOf('"');
+    if (q1 < 0 || q2 <= q1) return;
+    String name = tag.substring(0, q1).trim();
+    String value = tag.substring(q1 + 1, q2).replace("\\\"", "\"").replace("\\\\", "\\");
+    if (!name.isEmpty()) game.setTag(name, value);
+  }
+
+  private static boolean isResult(String token) {
+    return token.equals(PgnGame.WHITE_WINS) || token.equals(PgnGame.BLACK_WINS)
+        || token.equals(PgnGame.DRAW) || token.equals(PgnGame.UNFINISHED);
+  }
+
+  /** "12.", "12..." and the "12." prefix of "12.e4" are move numbers. */
+  private static String stripMoveNumber(String token) {
+    int i = 0;
+    while (i < token.length() && Character.isDigit(token.charAt(i))) i++;
+    if (i == token.length()) return "";
+    if (i > 0 && token.charAt(i) != '.') return token;
+    while (i < token.length() && token.charAt(i) == '.') i++;
+    return token.substring(i);
+  }
+
+  private String readUntil(char end) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    int ch;
+    boolean escaped = false;
+    while ((ch = read()) != -1) {
+      if (ch == end && !escaped) break;
+      escaped = end == ']' && ch == '\\' && !escaped;
+      sb.append((char) ch);
+    }
+    return sb.toString();
+  }
+
+  private int read() throws IOException {
+    if (pushback != -2) {
+      int ch = pushback;
+      pushback = -2;
+      return ch;
+    }
+    return in.read();
+  }
+
+  private void unread(int ch) {
+    pushback = ch;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
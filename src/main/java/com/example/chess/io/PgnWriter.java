@@ -0,0 +1,91 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/** Writes games in export format: seven-tag roster first, movetext wrapped at 79 columns. */
+public class PgnWriter implements Closeable, Flushable {
+  private static final String[] ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+  private static final int LINE_WIDTH = 79;
+
+  private final Writer out;
+
+  public PgnWriter(Writer out) {
+    this.out = out;
+  }
+
+  public void write(PgnGame game) throws IOException {
+    Map<String, String> tags = game.getTags();
+    for (String name : ROSTER) {
+      String value = name.equals("Result") ? game.getResult() : tags.getOrDefault(name, "?");
+      writeTag(name, value);
+    }
+    for (Map.Entry<String, String> t : tags.entrySet()) {
+      if (!isRoster(t.getKey())) writeTag(t.getKey(), t.getValue());
+    }
+    out.write('\n');
+
+    Board board = game.startingBoard();
+    int moveNumber = 1;
+    int column = 0;
+    boolean first = true;
+    for (Move m : game.getMoves()) {
+      StringBuilder token = new StringBuilder();
+      if (board.getSideToMove() == Color.WHITE) {
+        token.append(moveNumber).append(". ");
+      } else if (first) {
+        token.append(moveNumber).append("... ");
+      }
+      token.append(San.encode(board, m));
+      column = append(token.toString(), column);
+      board.applyMove(m);
+      if (board.getSideToMove() == Color.WHITE) moveNumber++;
+      first = false;
+    }
+    append(game.getResult(), column);
+    out.write("\n\n");
+  }
+
+  private int append(String token, int column) throws IOException {
+    if (column > 0 && column + 1 + token.length() > LINE_WIDTH) {
+      out.write('\n');
+      column = 0;
+    }
+    if (column > 0) {
+      out.write(' ');
+      column++;
+    }
+    out.write(token);
+    return column + token.length();
+  }
+
+  private void writeTag(String name, String value) throws IOException {
+    out.write('[');
+    out.write(name);
+    out.write(" \"");
+    out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+    out.write("\"]\n");
+  }
+
+  private static boolean isRoster(String name) {
+    for (String r : ROSTER) if (r.equals(name)) return true;
+    return false;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+}
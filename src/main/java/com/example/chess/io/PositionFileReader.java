@@ -0,0 +1,55 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.logic.PositionCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to a position file through read-only memory mappings,
+ * one window of whole records at a time. Not thread-safe.
+ */
+public class PositionFileReader implements Closeable {
+  private static final long WINDOW_RECORDS = (256L << 20) / PositionCodec.BYTES;
+
+  private final FileChannel channel;
+  private final long count;
+  private MappedByteBuffer window;
+  private long windowFirst = -1;
+
+  public PositionFileReader(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    count = channel.size() / PositionCodec.BYTES;
+  }
+
+  /** Number of positions in the file. */
+  public long size() { return count; }
+
+  public Board get(long index) throws IOException {
+    return PositionCodec.decode(slice(index));
+  }
+
+  /** The raw {@link PositionCodec#BYTES} bytes of position {@code index}. */
+  public ByteBuffer slice(long index) throws IOException {
+    if (index < 0 || index >= count) throw new IndexOutOfBoundsException("position " + index);
+    if (window == null || index < windowFirst || index >= windowFirst + WINDOW_RECORDS) {
+      windowFirst = index - index % WINDOW_RECORDS;
+      long records = Math.min(WINDOW_RECORDS, count - windowFirst);
+      window = channel.map(FileChannel.MapMode.READ_ONLY,
+          windowFirst * PositionCodec.BYTES, records * PositionCodec.BYTES);
+    }
+    int offset = (int) ((index - windowFirst) * PositionCodec.BYTES);
+    return window.slice(offset, PositionCodec.BYTES);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
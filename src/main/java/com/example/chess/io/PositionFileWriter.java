@@ -0,0 +1,54 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.logic.PositionCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends fixed-size {@link PositionCodec} records, so position {@code i}
+ * lives at byte {@code i * PositionCodec.BYTES}. Not thread-safe.
+ */
+public class PositionFileWriter implements Closeable {
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(PositionCodec.BYTES * 2048);
+
+  public PositionFileWriter(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    if (channel.size() % PositionCodec.BYTES != 0) {
+      channel.close();
+      throw new IOException("Not a position file: " + file);
+    }
+    channel.position(channel.size());
+  }
+
+  public void write(Board board) throws IOException {
+    if (buffer.remaining() < PositionCodec.BYTES) drain();
+    PositionCodec.encode(board, buffer);
+  }
+
+  public void flush() throws IOException {
+    drain();
+    channel.force(false);
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) channel.write(buffer);
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      drain();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.chess.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** A stream of positions read one at a time, so input size does not matter. */
+public interface PositionSource extends Closeable {
+  /** The next position, or null at end of input. */
+  EpdRecord next() throws IOException;
+}
@@ -0,0 +1,133 @@
+package com.example.chess.io;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+
+import java.util.List;
+
+/** Standard Algebraic Notation, resolved against {@link Board#generateLegalMoves}. */
+public final class San {
+  private static final String PIECE_LETTERS = "PNBRQK";
+
+  private San() {}
+
+  /** SAN for a legal move of the side to move, including check and mate marks. */
+  public static String encode(Board board, Move m) {
+    Color side = board.getSideToMove();
+    return encode(board, m, board.generateLegalMoves(side));
+  }
+
+  static String encode(Board board, Move m, List<Move> legal) {
+    Piece p = board.getPiece(m.fromRow, m.fromCol);
+    StringBuilder sb = new StringBuilder(8);
+    if (p.getType() == PieceType.KING && Math.abs(m.toCol - m.fromCol) == 2) {
+      sb.append(m.toCol == 6 ? "O-O" : "O-O-O");
+    } else {
+      boolean capture = board.getPiece(m.toRow, m.toCol) != null
+          || p.getType() == PieceType.PAWN && m.fromCol != m.toCol;
+      if (p.getType() == PieceType.PAWN) {
+        if (capture) sb.append(file(m.fromCol));
+      } else {
+        sb.append(PIECE_LETTERS.charAt(p.getType().ordinal()));
+        boolean ambiguous = false, sameFile = false, sameRank = false;
+        for (Move o : legal) {
+          if (o.toRow != m.toRow || o.toCol != m.toCol) continue;
+          if (o.fromRow == m.fromRow && o.fromCol == m.fromCol) continue;
+          if (board.getPiece(o.fromRow, o.fromCol).getType() != p.getType()) continue;
+          ambiguous = true;
+          if (o.fromCol == m.fromCol) sameFile = true;
+          if (o.fromRow == m.fromRow) sameRank = true;
+        }
+        if (ambiguous) {
+          if (!sameFile)      sb.append(file(m.fromCol));
+          else if (!sameRank) sb.append(rank(m.fromRow));
+          else                sb.append(file(m.fromCol)).append(rank(m.fromRow));
+        }
+      }
+      if (capture) sb.append('x');
+      sb.append(file(m.toCol)).append(rank(m.toRow));
+      if (m.promotion != null) sb.append('=').append(PIECE_LETTERS.charAt(m.promotion.ordinal()));
+    }
+
+    Board after = new Board(board);
+    after.applyMove(m);
+    Color opp = after.getSideToMove();
+    if (after.isInCheck(opp)) {
+      sb.append(after.generateLegalMoves(opp).isEmpty() ? '#' : '+');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * The legal move of the side to move that {@code san} names.
+   *
+   * @throws IllegalArgumentException if it names no legal move or more than one
+   */
+  public static Move decode(Board board, String san) {
+    List<Move> legal = board.generateLegalMoves(board.getSideToMove());
+    String s = san.replaceAll("[+#!?]+$", "");
+
+    if (s.equals("O-O") || s.equals("0-0") || s.equals("O-O-O") || s.equals("0-0-0")) {
+      int toCol = s.length() == 3 ? 6 : 2;
+      for (Move m : legal) {
+        Piece p = board.getPiece(m.fromRow, m.fromCol);
+        if (p.getType() == PieceType.KING && m.toCol == toCol && Math.abs(m.toCol - m.fromCol) == 2) {
+          return m;
+        }
+      }
+      throw new IllegalArgumentException("Illegal move: " + san);
+    }
+
+    PieceType promotion = null;
+    int eq = s.indexOf('=');
+    if (eq >= 0) {
+      promotion = pieceType(s.charAt(eq + 1), san);
+      s = s.substring(0, eq);
+    } else if (s.length() > 2 && PIECE_LETTERS.indexOf(s.charAt(s.length() - 1)) > 0) {
+      promotion = pieceType(s.charAt(s.length() - 1), san);
+      s = s.substring(0, s.length() - 1);
+    }
+
+    PieceType type = PieceType.PAWN;
+    if (!s.isEmpty() && Character.isUpperCase(s.charAt(0))) {
+      type = pieceType(s.charAt(0), san);
+      s = s.substring(1);
+    }
+    s = s.replace("x", "").replace("-", "");
+    if (s.length() < 2) throw new IllegalArgumentException("Bad SAN: " + san);
+    int toCol = s.charAt(s.length() - 2) - 'a';
+    int toRow = '8' - s.charAt(s.length() - 1);
+    String hint = s.substring(0, s.length() - 2);
+    int fromCol = -1, fromRow = -1;
+    for (char ch : hint.toCharArray()) {
+      if (ch >= 'a' && ch <= 'h')      fromCol = ch - 'a';
+      else if (ch >= '1' && ch <= '8') fromRow = '8' - ch;
+      else throw new IllegalArgumentException("Bad SAN: " + san);
+    }
+
+    Move found = null;
+    for (Move m : legal) {
+      if (m.toRow != toRow || m.toCol != toCol) continue;
+      if (fromCol >= 0 && m.fromCol != fromCol) continue;
+      if (fromRow >= 0 && m.fromRow != fromRow) continue;
+      if (board.getPiece(m.fromRow, m.fromCol).getType() != type) continue;
+      if (m.promotion != promotion) continue;
+      if (found != null) throw new IllegalArgumentException("Ambiguous move: " + san);
+      found = m;
+    }
+    if (found == null) throw new IllegalArgumentException("Illegal move: " + san);
+    return found;
+  }
+
+  private static PieceType pieceType(char letter, String san) {
+    int i = PIECE_LETTERS.indexOf(Character.toUpperCase(letter));
+    if (i < 0) throw new IllegalArgumentException("Bad SAN: " + san);
+    return PieceType.values()[i];
+  }
+
+  private static char file(int col) { return (char) ('a' + col); }
+  private static char rank(int row) { return (char) ('8' - row); }
+}
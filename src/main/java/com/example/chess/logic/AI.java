@@ -2,51 +2,485 @@ package com.example.chess.logic;
 
 import com.example.chess.model.Move;
 import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class AI {
-  private static final int MAX_DEPTH = 2;
+  private static final int MAX_DEPTH = 4;
+  static final int MAX_PLY = 64;
+  private static final int HASH_MB   = 16;
+
+  static final int INF  = 1_000_000;
+  static final int MATE = 100_000;
+
+  /** The engine's standard strength: a fixed-depth search. */
+  public static final SearchLimits DEFAULT_LIMITS = SearchLimits.depth(MAX_DEPTH);
+
+  /** Futility margins indexed by remaining depth. */
+  private static final int[] FUTILITY_MARGIN = {0, 200, 500};
+
+  private final SearchOptions options;
+  private final Evaluator evaluator;
+  private SearchContext context;
+  private final List<SearchListener> listeners = new CopyOnWriteArrayList<>();
+
+  public AI() {
+    this(SearchOptions.fromSystemProperties(), Evaluator.fromSystemProperties());
+  }
+
+  /** The engine's own table is only allocated if a search runs without a context. */
+  public AI(SearchOptions options) {
+    this(options, new PieceSquareEvaluator());
+  }
+
+  public AI(SearchOptions options, Evaluator evaluator) {
+    this.options = options;
+    this.evaluator = evaluator;
+  }
+
+  public AI(SearchOptions options, TranspositionTable tt) {
+    this(options);
+    this.context = new SearchContext(tt);
+  }
+
+  public SearchOptions getOptions() { return options; }
+
+  public Evaluator getEvaluator() { return evaluator; }
+
+  public void addListener(SearchListener l) { listeners.add(l); }
+
+  public void removeListener(SearchListener l) { listeners.remove(l); }
 
   public Move nextMove(Board board) {
-    return minimax(board, MAX_DEPTH, Color.BLACK).move;
+    return nextMove(board, Color.BLACK);
+  }
+
+  public Move nextMove(Board board, Color player) {
+    return search(board, player).move;
+  }
+
+  /** Iteratively deepens to the default depth and reports what it did. */
+  public SearchResult search(Board board, Color player) {
+    return search(board, player, DEFAULT_LIMITS);
+  }
+
+  /**
+   * Iteratively deepens until a limit is hit. The first iteration always
+   * completes, so a move is returned even under a very short time limit.
+   * Uses this engine's own context, so calls must not overlap; use an
+   * {@link EnginePool} to search several positions at once.
+   */
+  public SearchResult search(Board board, Color player, SearchLimits limits) {
+    return search(board, player, limits, ownContext());
+  }
+
+  private synchronized SearchContext ownContext() {
+    if (context == null) context = new SearchContext(new TranspositionTable(HASH_MB));
+    return context;
+  }
+
+  /**
+   * Searches with the tables in {@code ctx}, which no other search may be
+   * using at the same time. The engine itself holds no per-search state, so
+   * one instance can serve any number of threads with distinct contexts.
+   */
+  public SearchResult search(Board board, Color player, SearchLimits limits, SearchContext ctx) {
+    return searchMultiPv(board, player, 1, limits, ctx).get(0);
+  }
+
+  /**
+   * Like {@link #search(Board, Color, SearchLimits, SearchContext)}, but
+   * answers straight from {@code cache} when it already holds a result at
+   * least {@code limits.depth} deep. A shallower cached move is tried first
+   * instead. The new result is recorded in the cache.
+   */
+  public SearchResult search(Board board, Color player, SearchLimits limits,
+                             SearchContext ctx, AnalysisCache cache) {
+    SearchResult known = cache.get(board, player);
+    if (known != null && known.stats.getDepthReached() >= limits.depth) return known;
+    if (known != null) {
+      long hash = Zobrist.hash(board, player);
+      if (ctx.table.probe(hash, new SearchStats()) == 0) {
+        ctx.table.store(hash, key(known.move), known.score, 0, TranspositionTable.LOWER);
+      }
+    }
+    SearchResult r = search(board, player, limits, ctx);
+    cache.put(board, player, r);
+    return r;
+  }
+
+  /** {@link #searchMultiPv(Board, Color, int, SearchLimits, SearchContext)} with this engine's own context. */
+  public List<SearchResult> searchMultiPv(Board board, Color player, int lines, SearchLimits limits) {
+    return searchMultiPv(board, player, lines, limits, ownContext());
+  }
+
+  /**
+   * The best {@code lines} root moves, best first, each with its own score
+   * and principal variation. Every iteration searches the root once per
+   * line, excluding the moves already picked, and all passes share one
+   * transposition table. Later passes therefore cost far less than separate
+   * searches would. The list is shorter when there are fewer legal moves,
+   * and holds a single null-move result when there are none.
+   */
+  public List<SearchResult> searchMultiPv(Board board, Color player, int lines,
+                                          SearchLimits limits, SearchContext ctx) {
+    if (lines < 1) throw new IllegalArgumentException("lines must be at least 1");
+    ctx.reset();
+    return new Search(limits, ctx, evaluator).run(board, player, lines);
+  }
+
+  /** {@link #search(Board, Color, SkillLevel, SearchContext)} with this engine's own context. */
+  public SearchResult search(Board board, Color player, SkillLevel level) {
+    return search(board, player, level, ownContext());
+  }
+
+  /**
+   * Plays at {@code level}: searches its candidate lines within its limits,
+   * with material-only evaluation unless the level is positional, and picks
+   * one of the near-best moves at random.
+   */
+  public SearchResult search(Board board, Color player, SkillLevel level, SearchContext ctx) {
+    ctx.reset();
+    Evaluator eval = level.positional ? evaluator : MaterialEvaluator.INSTANCE;
+    List<SearchResult> lines = new Search(level.limits, ctx, eval).run(board, player, level.candidates);
+    return level.choose(lines, ThreadLocalRandom.current());
+  }
+
+  /** Thrown from deep in the tree when a node or time limit runs out. */
+  private static class Abort extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    Abort() { super(null, null, false, false); }
+  }
+
+  /** Per-call search state; the tables themselves live in a {@link SearchContext}. */
+  private class Search {
+    final int[][] killers;
+    final int[][] history;
+    final TranspositionTable tt;
+    final Evaluator eval;
+    final SearchStats stats = new SearchStats();
+    final SearchLimits limits;
+    final long deadline;
+    boolean abortable;
+    int untilCheck = 1024;
+
+    Search(SearchLimits limits, SearchContext ctx, Evaluator eval) {
+      this.killers = ctx.killers;
+      this.history = ctx.history;
+      this.tt = ctx.table;
+      this.eval = eval;
+      this.limits = limits;
+      this.deadline = limits.millis == SearchLimits.NO_LIMIT
+          ? Long.MAX_VALUE : System.nanoTime() + limits.millis * 1_000_000;
+    }
+
+    /** Counts a node, bailing out once a limit is exceeded. */
+    void visit(boolean quiescence) {
+      if (quiescence) stats.quiescenceNodes++;
+      else            stats.nodes++;
+      if (--untilCheck == 0) {
+        untilCheck = 1024;
+        if (abortable && (stats.getNodes() >= limits.nodes || System.nanoTime() >= deadline)) {
+          throw new Abort();
+        }
+      }
+    }
+
+    List<SearchResult> run(Board position, Color player, int lines) {
+      long start = System.nanoTime();
+      // One private board for the whole search, moved forward and back in place.
+      Board b = new Board(position);
+      if (b.getSideToMove() != player) b.setSideToMove(player);
+      eval.attach(b);
+      List<SearchResult> results = null;
+      for (int depth = 1; depth <= limits.depth; depth++) {
+        long iterStart = System.nanoTime();
+        long nodesBefore = stats.getNodes();
+        List<SearchResult> iteration = new ArrayList<>(lines);
+        Set<Integer> excluded = new HashSet<>();
+        try {
+          for (int line = 0; line < lines; line++) {
+            Record best = root(b, depth, player, excluded);
+            if (best.move == null) {
+              if (line == 0) {
+                int score = b.isInCheck(player) ? -MATE : 0;
+                iteration.add(new SearchResult(null, score, List.of(), stats));
+              }
+              break;
+            }
+            excluded.add(key(best.move));
+            iteration.add(new SearchResult(best.move, best.score,
+                principalVariation(tt, b, player, best.move, depth), stats));
+          }
+        } catch (Abort e) {
+          break;
+        }
+        iteration.sort((x, y) -> Integer.compare(y.score, x.score));
+        results = iteration;
+        abortable = true;
+        stats.iterationNanos.add(System.nanoTime() - iterStart);
+        stats.iterationNodes.add(stats.getNodes() - nodesBefore);
+        stats.depthReached = depth;
+        stats.elapsedNanos = System.nanoTime() - start;
+        SearchResult first = results.get(0);
+        for (SearchListener l : listeners) l.iterationCompleted(depth, first);
+        if (first.move == null || lines == 1 && isMateScore(first.score)) break;
+        if (stats.getNodes() >= limits.nodes || System.nanoTime() >= deadline) break;
+      }
+      stats.elapsedNanos = System.nanoTime() - start;
+      for (SearchListener l : listeners) l.searchCompleted(results.get(0));
+      return results;
+    }
+
+    /** Best root move not in {@code excluded}; only the unrestricted pass updates the table. */
+    Record root(Board b, int depth, Color player, Set<Integer> excluded) {
+      visit(false);
+      long hash = b.hash();
+      long entry = tt.probe(hash, stats);
+      List<Move> moves = b.generateLegalMoves(player);
+      if (!excluded.isEmpty()) moves.removeIf(m -> excluded.contains(key(m)));
+      order(b, moves, 0, TranspositionTable.move(entry));
+      Record best = new Record(null, -INF);
+      int alpha = -INF, beta = INF;
+      for (int i = 0; i < moves.size(); i++) {
+        Move m = moves.get(i);
+        b.applyMove(m);
+        int score;
+        if (i == 0 || !options.principalVariationSearch) {
+          score = -search(b, depth - 1, 1, -beta, -alpha, opposite(player), true);
+        } else {
+          score = -search(b, depth - 1, 1, -alpha - 1, -alpha, opposite(player), true);
+          if (score > alpha) {
+            score = -search(b, depth - 1, 1, -beta, -alpha, opposite(player), true);
+          }
+        }
+        b.undoMove();
+        if (score > best.score) best = new Record(m, score);
+        if (score > alpha) alpha = score;
+      }
+      if (best.move != null && excluded.isEmpty()) {
+        tt.store(hash, key(best.move), best.score, depth, TranspositionTable.EXACT);
+      }
+      return best;
+    }
+
+    int search(Board b, int depth, int ply, int alpha, int beta, Color side, boolean nullAllowed) {
+      // A repeat is scored as a draw at once: whatever the line was worth, it can be forced again.
+      if (b.isFiftyMoveDraw() || b.isRepetition()) return 0;
+      if (depth <= 0 || ply >= MAX_PLY) return quiesce(b, ply, alpha, beta, side);
+      visit(false);
+
+      boolean pvNode = beta - alpha > 1;
+      long hash  = b.hash();
+      long entry = tt.probe(hash, stats);
+      if (entry != 0 && !pvNode && TranspositionTable.depth(entry) >= depth) {
+        int s = fromTable(TranspositionTable.score(entry), ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+            || bound == TranspositionTable.LOWER && s >= beta
+            || bound == TranspositionTable.UPPER && s <= alpha) {
+          return s;
+        }
+      }
+
+      boolean inCheck = b.isInCheck(side);
+      int staticEval  = inCheck ? -INF : eval.evaluate(b, side);
+
+      // Null move: if passing still fails high, a real move will too.
+      if (options.nullMovePruning && nullAllowed && !pvNode && !inCheck
+          && depth >= 3 && staticEval >= beta && hasPieces(b, side)) {
+        int r = depth > 6 ? 3 : 2;
+        b.applyNullMove();
+        int score = -search(b, depth - 1 - r, ply + 1, -beta, -beta + 1, opposite(side), false);
+        b.undoMove();
+        if (score >= beta) return beta;
+      }
+
+      boolean futile = options.futilityPruning && !pvNode && !inCheck
+          && depth < FUTILITY_MARGIN.length
+          && staticEval + FUTILITY_MARGIN[depth] <= alpha;
+
+      List<Move> moves = b.generateLegalMoves(side);
+      if (moves.isEmpty()) return inCheck ? -MATE + ply : 0;
+      order(b, moves, ply, TranspositionTable.move(entry));
+
+      int origAlpha = alpha;
+      int bestScore = -INF;
+      Move bestMove = null;
+      for (int i = 0; i < moves.size(); i++) {
+        Move m = moves.get(i);
+        boolean quiet = isQuiet(b, m);
+        b.applyMove(m);
+        // Only late quiet moves can be pruned or reduced, so only they need the check test.
+        boolean candidate = quiet && i > 0 && (futile || options.lateMoveReductions && i >= 3);
+        boolean givesCheck = candidate && b.isInCheck(opposite(side));
+
+        if (futile && candidate && !givesCheck) {
+          b.undoMove();
+          continue;
+        }
+
+        int score;
+        if (i == 0 || !options.principalVariationSearch && !options.lateMoveReductions) {
+          score = -search(b, depth - 1, ply + 1, -beta, -alpha, opposite(side), true);
+        } else {
+          int reduction = 0;
+          if (options.lateMoveReductions && depth >= 3 && i >= 3
+              && candidate && !inCheck && !givesCheck) {
+            reduction = i >= 8 ? 2 : 1;
+          }
+          int window = options.principalVariationSearch ? alpha + 1 : beta;
+          score = -search(b, depth - 1 - reduction, ply + 1, -window, -alpha, opposite(side), true);
+          if (score > alpha && reduction > 0) {
+            score = -search(b, depth - 1, ply + 1, -window, -alpha, opposite(side), true);
+          }
+          if (score > alpha && score < beta && window != beta) {
+            score = -search(b, depth - 1, ply + 1, -beta, -alpha, opposite(side), true);
+          }
+        }
+        b.undoMove();
+
+        if (score > bestScore) {
+          bestScore = score;
+          bestMove = m;
+        }
+        if (score > alpha) alpha = score;
+        if (alpha >= beta) {
+          stats.betaCutoffs++;
+          if (i == 0) stats.firstMoveCutoffs++;
+          if (quiet) {
+            int k = key(m);
+            if (killers[ply][0] != k) {
+              killers[ply][1] = killers[ply][0];
+              killers[ply][0] = k;
+            }
+            history[m.fromRow * 8 + m.fromCol][m.toRow * 8 + m.toCol] += depth * depth;
+          }
+          break;
+        }
+      }
+
+      int bound = bestScore >= beta ? TranspositionTable.LOWER
+          : bestScore > origAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+      tt.store(hash, bestMove == null ? 0 : key(bestMove), toTable(bestScore, ply), depth, bound);
+      return bestScore;
+    }
+
+    /** Captures-only search so the leaves are not scored mid-exchange. */
+    int quiesce(Board b, int ply, int alpha, int beta, Color side) {
+      visit(true);
+      int standPat = eval.evaluate(b, side);
+      if (standPat >= beta) return standPat;
+      if (standPat > alpha) alpha = standPat;
+      if (ply >= MAX_PLY) return standPat;
+
+      List<Move> moves = b.generateLegalMoves(side);
+      moves.removeIf(m -> isQuiet(b, m));
+      order(b, moves, ply, 0);
+      for (Move m : moves) {
+        b.applyMove(m);
+        int score = -quiesce(b, ply + 1, -beta, -alpha, opposite(side));
+        b.undoMove();
+        if (score >= beta) return score;
+        if (score > alpha) alpha = score;
+      }
+      return alpha;
+    }
+
+    /** Hash move first, then captures (MVV-LVA), killers and quiet moves by history. */
+    void order(Board b, List<Move> moves, int ply, int hashMove) {
+      int k0 = ply < MAX_PLY ? killers[ply][0] : 0;
+      int k1 = ply < MAX_PLY ? killers[ply][1] : 0;
+      moves.sort((x, y) -> Integer.compare(rank(b, y, hashMove, k0, k1), rank(b, x, hashMove, k0, k1)));
+    }
+
+    int rank(Board b, Move m, int hashMove, int k0, int k1) {
+      int k = key(m);
+      if (k == hashMove) return 2_000_000;
+      Piece victim = b.getPiece(m.toRow, m.toCol);
+      if (victim != null) {
+        Piece attacker = b.getPiece(m.fromRow, m.fromCol);
+        return 1_000_000 + MaterialEvaluator.value(victim.getType()) * 10
+            - MaterialEvaluator.value(attacker.getType()) / 10;
+      }
+      if (k == k0) return 900_000;
+      if (k == k1) return 800_000;
+      return history[m.fromRow * 8 + m.fromCol][m.toRow * 8 + m.toCol];
+    }
   }
 
-  private Record minimax(Board b, int depth, Color player) {
-    if (depth==0) return new Record(null, evaluate(b));
-    List<Move> moves = b.generateLegalMoves(player);
-    Record best = new Record(
-      null,
-      player==Color.BLACK ? Integer.MIN_VALUE : Integer.MAX_VALUE
-    );
-    for (Move m : moves) {
-      Board copy = new Board(b);
-      copy.applyMove(m);
-      Record rec = minimax(copy, depth-1,
-        player==Color.BLACK ? Color.WHITE : Color.BLACK
-      );
-      if (player==Color.BLACK && rec.score > best.score) {
-        best = new Record(m, rec.score);
-      } else if (player==Color.WHITE && rec.score < best.score) {
-        best = new Record(m, rec.score);
+  /** Follows hash moves from the root, starting with {@code first}. */
+  private static List<Move> principalVariation(TranspositionTable tt, Board b, Color side, Move first, int maxLength) {
+    List<Move> pv = new ArrayList<>();
+    if (first == null) return pv;
+    Board pos = new Board(b);
+    Set<Long> seen = new HashSet<>();
+    SearchStats scratch = new SearchStats();
+    Move m = first;
+    while (m != null && pv.size() < maxLength && seen.add(Zobrist.hash(pos, side))) {
+      pv.add(m);
+      pos.applyMove(m);
+      side = opposite(side);
+      int next = TranspositionTable.move(tt.probe(Zobrist.hash(pos, side), scratch));
+      m = null;
+      if (next != 0) {
+        for (Move legal : pos.generateLegalMoves(side)) {
+          if (key(legal) == next) { m = legal; break; }
+        }
       }
     }
-    return best;
+    return pv;
   }
 
-  private int evaluate(Board b) {
-    int score=0;
+  /** False in king-and-pawn endings, where zugzwang makes null moves unsound. */
+  private static boolean hasPieces(Board b, Color side) {
     for(int r=0;r<8;r++)for(int c=0;c<8;c++){
       var p = b.board[r][c];
-      if(p!=null){
-        int v = switch(p.getType()){
-          case PAWN -> 1; case KNIGHT, BISHOP -> 3;
-          case ROOK -> 5; case QUEEN -> 9; case KING -> 1000;
-        };
-        score += (p.getColor()==Color.BLACK) ? v : -v;
-      }
+      if(p!=null && p.getColor()==side
+         && p.getType()!=PieceType.PAWN && p.getType()!=PieceType.KING) return true;
     }
-    return score;
+    return false;
+  }
+
+  /** True if {@code score} announces a forced mate for either side, within {@link #MAX_PLY}. */
+  static boolean isMateScore(int score) {
+    return Math.abs(score) >= MATE - MAX_PLY;
+  }
+
+  /** Mate scores are stored relative to the node, not the root. */
+  private static int toTable(int score, int ply) {
+    if (!isMateScore(score)) return score;
+    return score > 0 ? score + ply : score - ply;
+  }
+
+  private static int fromTable(int score, int ply) {
+    if (!isMateScore(score)) return score;
+    return score > 0 ? score - ply : score + ply;
+  }
+
+  /** Not a capture (en passant included) and not a promotion. */
+  private static boolean isQuiet(Board b, Move m) {
+    if (m.promotion != null || b.getPiece(m.toRow, m.toCol) != null) return false;
+    Piece p = b.getPiece(m.fromRow, m.fromCol);
+    return p.getType() != PieceType.PAWN || m.fromCol == m.toCol;
+  }
+
+  /** Non-zero 16-bit move id: from and to squares plus promotion piece. */
+  private static int key(Move m) {
+    int promo = m.promotion == null ? 0 : m.promotion.ordinal() + 1;
+    return 1 + ((m.fromRow * 8 + m.fromCol) << 6 | (m.toRow * 8 + m.toCol)) + (promo << 13);
+  }
+
+  private static Color opposite(Color c) {
+    return c==Color.BLACK ? Color.WHITE : Color.BLACK;
   }
 
   private static class Record {
@@ -0,0 +1,41 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Search results for the positions one game has visited, keyed by Zobrist
+ * hash. When a game comes back to a position (undo, replay, repetition),
+ * {@link AI} answers from here if the stored search was deep enough, and
+ * otherwise starts from the stored best move. The cache only ever holds one
+ * game's positions, so it needs no eviction. Thread-safe.
+ */
+public class AnalysisCache {
+  private final Map<Long, SearchResult> entries = new HashMap<>();
+
+  /** The deepest result recorded for {@code player} to move in {@code b}, or null. */
+  public synchronized SearchResult get(Board b, Color player) {
+    return entries.get(Zobrist.hash(b, player));
+  }
+
+  public SearchResult get(Board b) {
+    return get(b, b.getSideToMove());
+  }
+
+  /** Records {@code r} unless a deeper result for the same position is already held. */
+  public synchronized void put(Board b, Color player, SearchResult r) {
+    if (r.move == null) return;
+    entries.merge(Zobrist.hash(b, player), r,
+        (old, fresh) -> fresh.stats.getDepthReached() >= old.stats.getDepthReached() ? fresh : old);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+}
@@ -0,0 +1,204 @@
+package com.example.chess.logic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Attack lookup tables, squares numbered {@code row * 8 + col} as in
+ * {@link Board}. Knight, king and pawn attacks are plain per-square tables.
+ * Rook and bishop attacks use magic bitboards: the relevant blockers are
+ * masked, multiplied by a per-square magic and shifted down to an index
+ * into a table of precomputed attack sets. Lookups never allocate.
+ *
+ * The step tables are built when the class loads. The slider tables are
+ * much larger and live in a holder class, so they are built on the first
+ * slider lookup. Their magics come from the {@code magics.bin} resource, so
+ * startup skips the search for them. If the resource is missing or stale,
+ * the magics are searched for again. {@link #main} regenerates the resource.
+ */
+final class Attacks {
+  static final long[] KNIGHT = new long[64];
+  static final long[] KING   = new long[64];
+  /** Squares a pawn attacks: [0] for White (moving up the rows toward 0), [1] for Black. */
+  static final long[][] PAWN = new long[2][64];
+
+  private static final int[][] KNIGHT_STEPS = {{2,1},{2,-1},{-2,1},{-2,-1},{1,2},{1,-2},{-1,2},{-1,-2}};
+  private static final int[][] KING_STEPS   = {{1,0},{-1,0},{0,1},{0,-1},{1,1},{1,-1},{-1,1},{-1,-1}};
+  private static final int[][] ROOK_DIRS    = {{1,0},{-1,0},{0,1},{0,-1}};
+  private static final int[][] BISHOP_DIRS  = {{1,1},{1,-1},{-1,1},{-1,-1}};
+
+  private static final String MAGICS_RESOURCE = "magics.bin";
+
+  static {
+    for (int sq = 0; sq < 64; sq++) {
+      KNIGHT[sq] = steps(sq, KNIGHT_STEPS);
+      KING[sq]   = steps(sq, KING_STEPS);
+      PAWN[0][sq] = steps(sq, new int[][]{{-1,-1},{-1,1}});
+      PAWN[1][sq] = steps(sq, new int[][]{{1,-1},{1,1}});
+    }
+  }
+
+  /** Initialized on first use, when the JVM first touches this class. */
+  private static final class Sliders {
+    static final Magic ROOK;
+    static final Magic BISHOP;
+
+    static {
+      long[] known = loadMagics();
+      SplittableRandom rnd = new SplittableRandom(0x3A61C_B17L);
+      ROOK   = new Magic(ROOK_DIRS, known, 0, rnd);
+      BISHOP = new Magic(BISHOP_DIRS, known, 64, rnd);
+    }
+  }
+
+  private Attacks() {}
+
+  static long rook(int sq, long occupied)   { return Sliders.ROOK.attacks(sq, occupied); }
+
+  static long bishop(int sq, long occupied) { return Sliders.BISHOP.attacks(sq, occupied); }
+
+  static long queen(int sq, long occupied)  { return rook(sq, occupied) | bishop(sq, occupied); }
+
+  /** 64 rook then 64 bishop magics, big-endian; null if the resource is absent or unreadable. */
+  private static long[] loadMagics() {
+    try (InputStream in = Attacks.class.getResourceAsStream(MAGICS_RESOURCE)) {
+      if (in == null) return null;
+      DataInputStream data = new DataInputStream(in);
+      long[] magics = new long[128];
+      for (int i = 0; i < magics.length; i++) magics[i] = data.readLong();
+      return magics;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  static void writeMagics(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    for (long m : Sliders.ROOK.magics)   data.writeLong(m);
+    for (long m : Sliders.BISHOP.magics) data.writeLong(m);
+    data.flush();
+  }
+
+  /**
+   * Writes the magics resource:
+   * {@code java -cp target/classes com.example.chess.logic.Attacks
+   * src/main/resources/com/example/chess/logic/magics.bin}
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: Attacks OUTPUT_FILE");
+      return;
+    }
+    try (OutputStream out = Files.newOutputStream(Paths.get(args[0]))) {
+      writeMagics(out);
+    }
+  }
+
+  private static long steps(int sq, int[][] deltas) {
+    long bb = 0;
+    for (int[] d : deltas) {
+      int r = (sq >> 3) + d[0], c = (sq & 7) + d[1];
+      if (r >= 0 && r < 8 && c >= 0 && c < 8) bb |= 1L << (r * 8 + c);
+    }
+    return bb;
+  }
+
+  /** Attacks along {@code dirs} from {@code sq}, each ray stopping at the first blocker. */
+  private static long slide(int sq, long occupied, int[][] dirs) {
+    long bb = 0;
+    for (int[] d : dirs) {
+      int r = (sq >> 3) + d[0], c = (sq & 7) + d[1];
+      while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+        long bit = 1L << (r * 8 + c);
+        bb |= bit;
+        if ((occupied & bit) != 0) break;
+        r += d[0];
+        c += d[1];
+      }
+    }
+    return bb;
+  }
+
+  /** Squares whose occupancy matters: the rays without their last (edge) square. */
+  private static long mask(int sq, int[][] dirs) {
+    long bb = 0;
+    for (int[] d : dirs) {
+      int r = (sq >> 3) + d[0], c = (sq & 7) + d[1];
+      while (r + d[0] >= 0 && r + d[0] < 8 && c + d[1] >= 0 && c + d[1] < 8) {
+        bb |= 1L << (r * 8 + c);
+        r += d[0];
+        c += d[1];
+      }
+    }
+    return bb;
+  }
+
+  /** Magic lookup for one slider type, all squares sharing one attack table. */
+  private static final class Magic {
+    final long[] masks  = new long[64];
+    final long[] magics = new long[64];
+    final int[]  shifts  = new int[64];
+    final int[]  offsets = new int[64];
+    final long[] table;
+
+    /** Tries {@code known[base + sq]} first for each square when given. */
+    Magic(int[][] dirs, long[] known, int base, SplittableRandom rnd) {
+      int size = 0;
+      for (int sq = 0; sq < 64; sq++) {
+        masks[sq] = mask(sq, dirs);
+        shifts[sq] = 64 - Long.bitCount(masks[sq]);
+        offsets[sq] = size;
+        size += 1 << Long.bitCount(masks[sq]);
+      }
+      table = new long[size];
+      for (int sq = 0; sq < 64; sq++) magics[sq] = find(sq, dirs, known == null ? 0 : known[base + sq], rnd);
+    }
+
+    long attacks(int sq, long occupied) {
+      return table[offsets[sq] + (int) (((occupied & masks[sq]) * magics[sq]) >>> shifts[sq])];
+    }
+
+    /**
+     * Fills this square's slice of the table. Uses {@code candidate} if it
+     * works, and otherwise tries sparse random multipliers until one maps
+     * every blocker set without a harmful collision.
+     */
+    private long find(int sq, int[][] dirs, long candidate, SplittableRandom rnd) {
+      long mask = masks[sq];
+      int n = 1 << Long.bitCount(mask);
+      long[] blockers = new long[n];
+      long[] attacks  = new long[n];
+      int i = 0;
+      long subset = 0;
+      do {  // every subset of the mask
+        blockers[i] = subset;
+        attacks[i++] = slide(sq, subset, dirs);
+        subset = (subset - mask) & mask;
+      } while (subset != 0);
+
+      int[] used = new int[n];
+      for (int attempt = 1; ; attempt++) {
+        long magic = attempt == 1 && candidate != 0
+            ? candidate : rnd.nextLong() & rnd.nextLong() & rnd.nextLong();
+        if (magic != candidate && Long.bitCount((mask * magic) & 0xFF00_0000_0000_0000L) < 6) continue;
+        boolean ok = true;
+        for (int j = 0; j < n && ok; j++) {
+          int idx = (int) ((blockers[j] * magic) >>> shifts[sq]);
+          if (used[idx] != attempt) {
+            used[idx] = attempt;
+            table[offsets[sq] + idx] = attacks[j];
+          } else if (table[offsets[sq] + idx] != attacks[j]) {
+            ok = false;
+          }
+        }
+        if (ok) return magic;
+      }
+    }
+  }
+}
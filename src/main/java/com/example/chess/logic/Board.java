@@ -6,18 +6,63 @@ import com.example.chess.model.PieceType;
 import com.example.chess.model.Color;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Mutable game state. Queries never write to the board, so several threads
+ * may read one instance at the same time, but any {@code apply*} call needs
+ * exclusive access. To share a position freely, take a {@link Position}.
+ */
 public class Board {
-    /** 8×8 board: row 0 = Black back rank, row 7 = White back rank */
+    /** 8x8 board: row 0 = Black back rank, row 7 = White back rank */
     protected Piece[][] board = new Piece[8][8];
+    
+    // whether the pieces involved in castling have moved
+    private boolean whiteKingMoved  = false,
+                    blackKingMoved  = false,
+                    whiteRookAMoved = false,  // a-file rook
+                    whiteRookHMoved = false,  // h-file rook
+                    blackRookAMoved = false,
+                    blackRookHMoved = false;
+    private Move lastMove = null;
+    private Color sideToMove = Color.WHITE;
+
+    /** Zobrist key of the current position, updated by every move. */
+    private long hash;
+    /** Plies since the last capture or pawn move, for the fifty-move rule. */
+    private int halfmoveClock;
+    /** Occupied squares (bit row*8+col) per colour, indexed by {@code Color.ordinal()}. */
+    private final long[] occupancy = new long[2];
+    private BoardObserver observer;
+
+    // Move stack, indexed by ply: the hash before each move (kept across
+    // copies, for repetition checks) and what undoMove needs to restore
+    // (only for moves made on this instance, from undoFloor up).
+    private int ply, undoFloor;
+    private long[]  hashes        = new long[INITIAL_PLIES];
+    private long[]  occupied      = new long[INITIAL_PLIES * 2];
+    private Move[]  moves         = new Move[INITIAL_PLIES];
+    private Piece[] movedPieces   = new Piece[INITIAL_PLIES];
+    private Piece[] captured      = new Piece[INITIAL_PLIES];
+    private int[]   captureSquare = new int[INITIAL_PLIES];
+    private int[]   movedFlags    = new int[INITIAL_PLIES];
+    private int[]   clocks        = new int[INITIAL_PLIES];
+    private Move[]  lastMoves     = new Move[INITIAL_PLIES];
+    private static final int INITIAL_PLIES = 128;
+
+    private static final PieceType[] PROMOTIONS = {
+        PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+    };
 
     /** Standard starting setup */
     public Board() {
         initialize();
+        computeOccupancy();
+        hash = Zobrist.hash(this, sideToMove);
     }
 
-    /** Deep‐copy constructor */
+    /** Deep-copy constructor */
     public Board(Board other) {
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
@@ -25,6 +70,357 @@ public class Board {
                 board[r][c] = (p == null) ? null : new Piece(p.getType(), p.getColor());
             }
         }
+        this.lastMove = other.lastMove;
+        this.whiteKingMoved  = other.whiteKingMoved;
+        this.blackKingMoved  = other.blackKingMoved;
+        this.whiteRookAMoved = other.whiteRookAMoved;
+        this.whiteRookHMoved = other.whiteRookHMoved;
+        this.blackRookAMoved = other.blackRookAMoved;
+        this.blackRookHMoved = other.blackRookHMoved;
+        this.sideToMove = other.sideToMove;
+        this.hash = other.hash;
+        this.occupancy[0] = other.occupancy[0];
+        this.occupancy[1] = other.occupancy[1];
+        this.halfmoveClock = other.halfmoveClock;
+        this.ply = this.undoFloor = other.ply;
+        if (ply >= hashes.length) grow(ply + 1);
+        System.arraycopy(other.hashes, 0, hashes, 0, ply);
+    }
+
+    /**
+     * Position from Forsyth-Edwards Notation. The move counters are optional,
+     * so the four-field form used by EPD is accepted as well.
+     */
+    public Board(String fen) {
+        String[] f = fen.trim().split("\\s+");
+        if (f.length < 4) throw new IllegalArgumentException("Bad FEN: " + fen);
+        String[] ranks = f[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("Bad FEN: " + fen);
+        for (int r = 0; r < 8; r++) {
+            int c = 0;
+            for (char ch : ranks[r].toCharArray()) {
+                if (Character.isDigit(ch)) {
+                    c += ch - '0';
+                } else {
+                    if (c > 7) throw new IllegalArgumentException("Bad FEN: " + fen);
+                    Color color = Character.isUpperCase(ch) ? Color.WHITE : Color.BLACK;
+                    board[r][c++] = new Piece(pieceType(Character.toLowerCase(ch), fen), color);
+                }
+            }
+            if (c != 8) throw new IllegalArgumentException("Bad FEN: " + fen);
+        }
+        sideToMove = f[1].equals("b") ? Color.BLACK : Color.WHITE;
+
+        int rights = 0;
+        if (f[2].indexOf('K') >= 0) rights |= 1;
+        if (f[2].indexOf('Q') >= 0) rights |= 2;
+        if (f[2].indexOf('k') >= 0) rights |= 4;
+        if (f[2].indexOf('q') >= 0) rights |= 8;
+        setCastlingRights(rights);
+        if (!f[3].equals("-")) setEnPassantFile(f[3].charAt(0) - 'a');
+        if (f.length > 4) {
+            try {
+                halfmoveClock = Integer.parseInt(f[4]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad FEN: " + fen);
+            }
+        }
+        computeOccupancy();
+        hash = Zobrist.hash(this, sideToMove);
+    }
+
+    /** Position from raw parts; used by the compact encodings. */
+    Board(Piece[][] squares, Color sideToMove, int castlingRights, int enPassantFile, int halfmoveClock) {
+        for (int r = 0; r < 8; r++) {
+            System.arraycopy(squares[r], 0, board[r], 0, 8);
+        }
+        this.sideToMove = sideToMove;
+        this.halfmoveClock = halfmoveClock;
+        setCastlingRights(castlingRights);
+        if (enPassantFile >= 0) setEnPassantFile(enPassantFile);
+        computeOccupancy();
+        hash = Zobrist.hash(this, sideToMove);
+    }
+
+    private void computeOccupancy() {
+        occupancy[0] = occupancy[1] = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board[r][c];
+                if (p != null) occupancy[p.getColor().ordinal()] |= 1L << (r * 8 + c);
+            }
+        }
+    }
+
+    /** A missing right is recorded as the king or rook having moved. */
+    private void setCastlingRights(int rights) {
+        whiteKingMoved  = (rights & 3) == 0;
+        blackKingMoved  = (rights & 12) == 0;
+        whiteRookHMoved = (rights & 1) == 0;
+        whiteRookAMoved = (rights & 2) == 0;
+        blackRookHMoved = (rights & 4) == 0;
+        blackRookAMoved = (rights & 8) == 0;
+    }
+
+    /** En passant is tracked through the double push that allowed it. */
+    private void setEnPassantFile(int col) {
+        if (sideToMove == Color.WHITE) lastMove = new Move(1, col, 3, col);
+        else                           lastMove = new Move(6, col, 4, col);
+    }
+
+    private static PieceType pieceType(char ch, String fen) {
+        switch (ch) {
+            case 'p': return PieceType.PAWN;
+            case 'n': return PieceType.KNIGHT;
+            case 'b': return PieceType.BISHOP;
+            case 'r': return PieceType.ROOK;
+            case 'q': return PieceType.QUEEN;
+            case 'k': return PieceType.KING;
+            default:  throw new IllegalArgumentException("Bad FEN: " + fen);
+        }
+    }
+
+    /** Piece placement, side, castling and en passant fields of the FEN. */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < 8; r++) {
+            int empty = 0;
+            for (int c = 0; c < 8; c++) {
+                Piece p = board[r][c];
+                if (p == null) { empty++; continue; }
+                if (empty > 0) { sb.append(empty); empty = 0; }
+                char ch = "pnbrqk".charAt(p.getType().ordinal());
+                sb.append(p.getColor() == Color.WHITE ? Character.toUpperCase(ch) : ch);
+            }
+            if (empty > 0) sb.append(empty);
+            if (r < 7) sb.append('/');
+        }
+        sb.append(sideToMove == Color.WHITE ? " w " : " b ");
+        int rights = castlingRights();
+        if (rights == 0) sb.append('-');
+        if ((rights & 1) != 0) sb.append('K');
+        if ((rights & 2) != 0) sb.append('Q');
+        if ((rights & 4) != 0) sb.append('k');
+        if ((rights & 8) != 0) sb.append('q');
+        int ep = enPassantFile();
+        if (ep < 0) {
+            sb.append(" -");
+        } else {
+            sb.append(' ').append((char) ('a' + ep)).append(sideToMove == Color.WHITE ? '6' : '3');
+        }
+        return sb.toString();
+    }
+
+    /** The colour whose turn it is; flipped by every {@link #applyMove}. */
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(Color color) {
+        sideToMove = color;
+        hash = Zobrist.hash(this, sideToMove);
+    }
+
+    /** Follow piece changes from now on; null to stop. Not copied by the copy constructor. */
+    public void setObserver(BoardObserver observer) {
+        this.observer = observer;
+    }
+
+    BoardObserver getObserver() {
+        return observer;
+    }
+
+    /** Zobrist key of the position, as {@link Zobrist#hash} computes it. */
+    long hash() {
+        return hash;
+    }
+
+    /** Plies since the last capture or pawn move. */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * How many times the current position occurred before. Only positions
+     * since the last capture, pawn move or null move can match, and only
+     * every other ply, so the scan is bounded by half the halfmove clock
+     * and in the search usually covers a few plies.
+     */
+    public int repetitions() {
+        return repetitions(Integer.MAX_VALUE);
+    }
+
+    /** The position has been seen before; the search scores this as a draw. */
+    public boolean isRepetition() {
+        return repetitions(1) > 0;
+    }
+
+    /** Third occurrence of the position: the game is drawn. */
+    public boolean isThreefoldRepetition() {
+        return repetitions(2) >= 2;
+    }
+
+    // Counts earlier occurrences, stopping once there are enough.
+    private int repetitions(int enough) {
+        int count = 0;
+        int limit = Math.min(halfmoveClock, ply);
+        for (int back = 4; back <= limit && count < enough; back += 2) {
+            if (hashes[ply - back] == hash) count++;
+        }
+        return count;
+    }
+
+    /** A hundred plies without a capture or pawn move: the game is drawn. */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= 100;
+    }
+
+    /** {@code color} to move, not in check and without a legal move. */
+    public boolean isStalemate(Color color) {
+        return !isInCheck(color) && generateLegalMoves(color).isEmpty();
+    }
+
+    /** Bits 1,2,4,8 = White king-side, White queen-side, Black king-side, Black queen-side. */
+    int castlingRights() {
+        int rights = 0;
+        if (!whiteKingMoved && !whiteRookHMoved) rights |= 1;
+        if (!whiteKingMoved && !whiteRookAMoved) rights |= 2;
+        if (!blackKingMoved && !blackRookHMoved) rights |= 4;
+        if (!blackKingMoved && !blackRookAMoved) rights |= 8;
+        return rights;
+    }
+
+    /** File of a pawn that can be taken en passant right now, or -1. */
+    int enPassantFile() {
+        if (lastMove == null || Math.abs(lastMove.toRow - lastMove.fromRow) != 2) return -1;
+        Piece p = board[lastMove.toRow][lastMove.toCol];
+        if (p == null || p.getType() != PieceType.PAWN) return -1;
+        return lastMove.toCol;
+    }
+
+    /**
+     * Pass the turn without moving, as the search's null move does. Undone
+     * by {@link #undoMove()}; positions before it never count as repeats.
+     */
+    public void applyNullMove() {
+        push(null, null, null, -1);
+        hash ^= epKey() ^ Zobrist.BLACK_TO_MOVE;
+        lastMove = null;
+        halfmoveClock = 0;
+        sideToMove = (sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    }
+
+    /**
+     * Takes back the last {@link #applyMove} or {@link #applyNullMove}. Moves
+     * made before this board was copied cannot be undone on the copy.
+     */
+    public void undoMove() {
+        if (ply == undoFloor) throw new IllegalStateException("no move to undo");
+        ply--;
+        Move m = moves[ply];
+        if (m != null) {
+            Piece p = movedPieces[ply];
+            if (observer != null) notifyUndo(m, p, board[m.toRow][m.toCol]);
+            board[m.fromRow][m.fromCol] = p;
+            board[m.toRow][m.toCol] = null;
+            int sq = captureSquare[ply];
+            if (sq >= 0) board[sq >> 3][sq & 7] = captured[ply];
+            if (p.getType() == PieceType.KING && Math.abs(m.toCol - m.fromCol) == 2) {
+                int rookFrom = m.toCol == 6 ? 7 : 0, rookTo = m.toCol == 6 ? 5 : 3;
+                board[m.fromRow][rookFrom] = board[m.fromRow][rookTo];
+                board[m.fromRow][rookTo] = null;
+            }
+        }
+        setMovedFlags(movedFlags[ply]);
+        lastMove = lastMoves[ply];
+        halfmoveClock = clocks[ply];
+        hash = hashes[ply];
+        occupancy[0] = occupied[2 * ply];
+        occupancy[1] = occupied[2 * ply + 1];
+        moves[ply] = lastMoves[ply] = null;
+        movedPieces[ply] = captured[ply] = null;
+    }
+
+    /** Reports the piece changes of undoing {@code m}; called before the board changes back. */
+    private void notifyUndo(Move m, Piece moved, Piece placed) {
+        observer.pieceRemoved(placed, m.toRow * 8 + m.toCol);
+        observer.pieceAdded(moved, m.fromRow * 8 + m.fromCol);
+        int sq = captureSquare[ply];
+        if (sq >= 0) observer.pieceAdded(captured[ply], sq);
+        if (moved.getType() == PieceType.KING && Math.abs(m.toCol - m.fromCol) == 2) {
+            int rookFrom = m.toCol == 6 ? 7 : 0, rookTo = m.toCol == 6 ? 5 : 3;
+            Piece rook = board[m.fromRow][rookTo];
+            observer.pieceRemoved(rook, m.fromRow * 8 + rookTo);
+            observer.pieceAdded(rook, m.fromRow * 8 + rookFrom);
+        }
+    }
+
+    /** Reports the piece changes of {@code m}, just applied. */
+    private void notifyApply(Move m, Piece moved, Piece taken, int takenSquare) {
+        observer.pieceRemoved(moved, m.fromRow * 8 + m.fromCol);
+        if (taken != null) observer.pieceRemoved(taken, takenSquare);
+        if (moved.getType() == PieceType.KING && Math.abs(m.toCol - m.fromCol) == 2) {
+            int rookFrom = m.toCol == 6 ? 7 : 0, rookTo = m.toCol == 6 ? 5 : 3;
+            Piece rook = board[m.fromRow][rookTo];
+            observer.pieceRemoved(rook, m.fromRow * 8 + rookFrom);
+            observer.pieceAdded(rook, m.fromRow * 8 + rookTo);
+        }
+        observer.pieceAdded(board[m.toRow][m.toCol], m.toRow * 8 + m.toCol);
+    }
+
+    /** Saves everything {@link #undoMove()} needs, before the board changes. */
+    private void push(Move m, Piece moved, Piece taken, int takenSquare) {
+        if (ply == hashes.length) grow(ply * 2);
+        hashes[ply]        = hash;
+        occupied[2 * ply]     = occupancy[0];
+        occupied[2 * ply + 1] = occupancy[1];
+        moves[ply]         = m;
+        movedPieces[ply]   = moved;
+        captured[ply]      = taken;
+        captureSquare[ply] = takenSquare;
+        movedFlags[ply]    = movedFlags();
+        clocks[ply]        = halfmoveClock;
+        lastMoves[ply]     = lastMove;
+        ply++;
+    }
+
+    private void grow(int capacity) {
+        hashes        = Arrays.copyOf(hashes, capacity);
+        occupied      = Arrays.copyOf(occupied, capacity * 2);
+        moves         = Arrays.copyOf(moves, capacity);
+        movedPieces   = Arrays.copyOf(movedPieces, capacity);
+        captured      = Arrays.copyOf(captured, capacity);
+        captureSquare = Arrays.copyOf(captureSquare, capacity);
+        movedFlags    = Arrays.copyOf(movedFlags, capacity);
+        clocks        = Arrays.copyOf(clocks, capacity);
+        lastMoves     = Arrays.copyOf(lastMoves, capacity);
+    }
+
+    /** The castling flags and side to move, packed for the move stack. */
+    private int movedFlags() {
+        return (whiteKingMoved  ? 1  : 0) | (blackKingMoved  ? 2  : 0)
+             | (whiteRookAMoved ? 4  : 0) | (whiteRookHMoved ? 8  : 0)
+             | (blackRookAMoved ? 16 : 0) | (blackRookHMoved ? 32 : 0)
+             | (sideToMove == Color.BLACK ? 64 : 0);
+    }
+
+    private void setMovedFlags(int f) {
+        sideToMove      = (f & 64) != 0 ? Color.BLACK : Color.WHITE;
+        whiteKingMoved  = (f & 1)  != 0;
+        blackKingMoved  = (f & 2)  != 0;
+        whiteRookAMoved = (f & 4)  != 0;
+        whiteRookHMoved = (f & 8)  != 0;
+        blackRookAMoved = (f & 16) != 0;
+        blackRookHMoved = (f & 32) != 0;
+    }
+
+    private long epKey() {
+        int ep = enPassantFile();
+        return ep >= 0 ? Zobrist.EN_PASSANT[ep] : 0L;
+    }
+
+    private static long key(Piece p, int r, int c) {
+        return Zobrist.PIECE_SQUARE[Zobrist.pieceIndex(p) * 64 + r * 8 + c];
     }
 
     /** Place all pieces in their standard starting squares */
@@ -69,11 +465,89 @@ public class Board {
 
     /** Move a piece (no legality check here) */
     public void applyMove(Move m) {
-        board[m.toRow][m.toCol] = board[m.fromRow][m.fromCol];
+        Piece p = board[m.fromRow][m.fromCol];
+
+        // 0) Remember what the move destroys, for undoMove
+        boolean enPassant = p.getType() == PieceType.PAWN
+            && m.fromCol != m.toCol && board[m.toRow][m.toCol] == null;
+        int takenRow = enPassant ? m.fromRow : m.toRow;
+        Piece taken = board[takenRow][m.toCol];
+        push(m, p, taken, taken == null ? -1 : takenRow * 8 + m.toCol);
+        long h = hash ^ Zobrist.CASTLING[castlingRights()] ^ epKey() ^ key(p, m.fromRow, m.fromCol);
+        int us = p.getColor().ordinal();
+        occupancy[us] ^= 1L << (m.fromRow * 8 + m.fromCol) | 1L << (m.toRow * 8 + m.toCol);
+        if (taken != null) {
+            h ^= key(taken, takenRow, m.toCol);
+            occupancy[1 - us] &= ~(1L << (takenRow * 8 + m.toCol));
+        }
+
+        // 1) Castling: move the rook as well
+        if (p.getType() == PieceType.KING && Math.abs(m.toCol - m.fromCol) == 2) {
+            int row = (p.getColor() == Color.WHITE ? 7 : 0);
+            if (m.toCol == 6) {
+                // king-side: rook from h-file to f-file
+                h ^= key(board[row][7], row, 7) ^ key(board[row][7], row, 5);
+                occupancy[us] ^= 1L << (row * 8 + 7) | 1L << (row * 8 + 5);
+                board[row][5] = board[row][7];
+                board[row][7] = null;
+                if (p.getColor() == Color.WHITE) whiteRookHMoved = true;
+                else                             blackRookHMoved = true;
+            } else if (m.toCol == 2) {
+                // queen-side: rook from a-file to d-file
+                h ^= key(board[row][0], row, 0) ^ key(board[row][0], row, 3);
+                occupancy[us] ^= 1L << (row * 8) | 1L << (row * 8 + 3);
+                board[row][3] = board[row][0];
+                board[row][0] = null;
+                if (p.getColor() == Color.WHITE) whiteRookAMoved = true;
+                else                             blackRookAMoved = true;
+            }
+        }
+
+        // En passant: the captured pawn sits one rank behind the destination
+        if (enPassant) {
+            board[takenRow][m.toCol] = null;
+        }
+
+        // 2) Update moved flags for any king or rook
+        if (p.getType() == PieceType.KING) {
+            if (p.getColor() == Color.WHITE) whiteKingMoved = true;
+            else                             blackKingMoved = true;
+        }
+        if (p.getType() == PieceType.ROOK) {
+            if (p.getColor() == Color.WHITE) {
+                if (m.fromRow == 7 && m.fromCol == 0) whiteRookAMoved = true;
+                if (m.fromRow == 7 && m.fromCol == 7) whiteRookHMoved = true;
+            } else {
+                if (m.fromRow == 0 && m.fromCol == 0) blackRookAMoved = true;
+                if (m.fromRow == 0 && m.fromCol == 7) blackRookHMoved = true;
+            }
+        }
+        // a rook captured at home can no longer castle either
+        if (m.toRow == 7 && m.toCol == 0) whiteRookAMoved = true;
+        if (m.toRow == 7 && m.toCol == 7) whiteRookHMoved = true;
+        if (m.toRow == 0 && m.toCol == 0) blackRookAMoved = true;
+        if (m.toRow == 0 && m.toCol == 7) blackRookHMoved = true;
+
+        // 3) Move the piece itself, promoting a pawn on the last rank
+        board[m.toRow][m.toCol] = p;
+        if (p.getType() == PieceType.PAWN && (m.toRow == 0 || m.toRow == 7)) {
+            PieceType chosen = (m.promotion != null) ? m.promotion : PieceType.QUEEN;
+            board[m.toRow][m.toCol] = new Piece(chosen, p.getColor());
+        }
         board[m.fromRow][m.fromCol] = null;
+
+        lastMove = m;
+        if (sideToMove == p.getColor()) h ^= Zobrist.BLACK_TO_MOVE;
+        sideToMove = p.getColor() == Color.WHITE ? Color.BLACK : Color.WHITE;
+        halfmoveClock = (taken != null || p.getType() == PieceType.PAWN) ? 0 : halfmoveClock + 1;
+        hash = h ^ key(board[m.toRow][m.toCol], m.toRow, m.toCol)
+            ^ Zobrist.CASTLING[castlingRights()] ^ epKey();
+        if (observer != null) notifyApply(m, p, taken, takenRow * 8 + m.toCol);
     }
 
-    /** True if m appears in the post‐check‐filter legal moves */
+
+
+    /** True if m appears in the post-check-filter legal moves */
     public boolean isLegal(Move m) {
         Piece p = getPiece(m.fromRow, m.fromCol);
         if (p == null) return false;
@@ -86,7 +560,7 @@ public class Board {
             );
     }
 
-    /** True if that color’s king still exists on the board */
+    /** True if that color's king still exists on the board */
     public boolean hasKing(Color color) {
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
@@ -99,163 +573,183 @@ public class Board {
         return false;
     }
 
-    /** True if the king of that color is under attack */
+    /** True if the king of that colour is under attack */
     public boolean isInCheck(Color color) {
-        // find king location
-        int kr = -1, kc = -1;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = board[r][c];
-                if (p != null && p.getColor() == color && p.getType() == PieceType.KING) {
-                    kr = r; kc = c;
-                    break;
-                }
+        for (long bb = occupancy[color.ordinal()]; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            if (board[sq >> 3][sq & 7].getType() == PieceType.KING) {
+                return isAttacked(sq, color == Color.WHITE ? Color.BLACK : Color.WHITE);
             }
-            if (kr != -1) break;
         }
-        // generate opponent pseudo‐legal moves
-        Color opp = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
-        for (Move m : generatePseudoLegalMoves(opp)) {
-            if (m.toRow == kr && m.toCol == kc) return true;
+        return false;
+    }
+
+    /** True if any piece of colour {@code by} attacks square {@code sq} (row*8+col). */
+    boolean isAttacked(int sq, Color by) {
+        long theirs = occupancy[by.ordinal()];
+        long all    = occupancy[0] | occupancy[1];
+        // look outward from the square with each piece's own pattern
+        return hasType(Attacks.KNIGHT[sq] & theirs, PieceType.KNIGHT, PieceType.KNIGHT)
+            || hasType(Attacks.KING[sq] & theirs, PieceType.KING, PieceType.KING)
+            || hasType(Attacks.PAWN[1 - by.ordinal()][sq] & theirs, PieceType.PAWN, PieceType.PAWN)
+            || hasType(Attacks.rook(sq, all) & theirs, PieceType.ROOK, PieceType.QUEEN)
+            || hasType(Attacks.bishop(sq, all) & theirs, PieceType.BISHOP, PieceType.QUEEN);
+    }
+
+    private boolean hasType(long squares, PieceType a, PieceType b) {
+        for (; squares != 0; squares &= squares - 1) {
+            int sq = Long.numberOfTrailingZeros(squares);
+            PieceType t = board[sq >> 3][sq & 7].getType();
+            if (t == a || t == b) return true;
         }
         return false;
     }
 
+
     /**
      * Generate only those moves that do NOT leave your king in check.
-     * I.e., filter out any pseudo‐legal move that places or leaves you in check.
+     * I.e., filter out any pseudo-legal move that places or leaves you in check.
      */
     public List<Move> generateLegalMoves(Color color) {
         List<Move> legal = new ArrayList<>();
-        for (Move m : generatePseudoLegalMoves(color)) {
-            Board copy = new Board(this);
-            copy.applyMove(m);
-            if (!copy.isInCheck(color)) {
+        Board scratch = new Board(this);
+        for (Move m : generatePseudoLegalMoves(color, true)) {
+            scratch.applyMove(m);
+            if (!scratch.isInCheck(color)) {
                 legal.add(m);
             }
+            scratch.undoMove();
         }
         return legal;
     }
 
     /**
      * Generate all moves ignoring check.
-     * This is your “pseudo‐legal” move generator.
+     * This is your "pseudo-legal" move generator.
      */
-    private List<Move> generatePseudoLegalMoves(Color color) {
+    private List<Move> generatePseudoLegalMoves(Color color, boolean withCastling) {
         List<Move> moves = new ArrayList<>();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = board[r][c];
-                if (p != null && p.getColor() == color) {
-                    switch (p.getType()) {
-                        case PAWN:
-                            pawnMoves(moves, r, c, color);
-                            break;
-                        case KNIGHT:
-                            knightMoves(moves, r, c, color);
-                            break;
-                        case BISHOP:
-                            slidingMoves(moves, r, c, color,
-                                new int[][]{{1,1},{1,-1},{-1,1},{-1,-1}});
-                            break;
-                        case ROOK:
-                            slidingMoves(moves, r, c, color,
-                                new int[][]{{1,0},{-1,0},{0,1},{0,-1}});
-                            break;
-                        case QUEEN:
-                            slidingMoves(moves, r, c, color,
-                                new int[][]{
-                                    {1,0},{-1,0},{0,1},{0,-1},
-                                    {1,1},{1,-1},{-1,1},{-1,-1}
-                                });
-                            break;
-                        case KING:
-                            kingMoves(moves, r, c, color);
-                            break;
-                    }
-                }
+        long own = occupancy[color.ordinal()];
+        long all = occupancy[0] | occupancy[1];
+        for (long bb = own; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            int r = sq >> 3, c = sq & 7;
+            switch (board[r][c].getType()) {
+                case PAWN:
+                    pawnMoves(moves, r, c, color);
+                    break;
+                case KNIGHT:
+                    addMoves(moves, r, c, Attacks.KNIGHT[sq] & ~own);
+                    break;
+                case BISHOP:
+                    addMoves(moves, r, c, Attacks.bishop(sq, all) & ~own);
+                    break;
+                case ROOK:
+                    addMoves(moves, r, c, Attacks.rook(sq, all) & ~own);
+                    break;
+                case QUEEN:
+                    addMoves(moves, r, c, Attacks.queen(sq, all) & ~own);
+                    break;
+                case KING:
+                    addMoves(moves, r, c, Attacks.KING[sq] & ~own);
+                    if (withCastling) castlingMoves(moves,r,c,color);
+                    break;
             }
         }
         return moves;
     }
 
+    /** One move from (r,c) to each square in {@code targets}. */
+    private static void addMoves(List<Move> moves, int r, int c, long targets) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(new Move(r, c, to >> 3, to & 7));
+        }
+    }
+
+    private void castlingMoves(List<Move> moves, int r, int c, Color color) {
+        // 1) Must not have moved king or be currently in check
+        boolean kingMoved = (color == Color.WHITE ? whiteKingMoved : blackKingMoved);
+        if (kingMoved || isInCheck(color)) return;
+
+        int row = (color == Color.WHITE ? 7 : 0);
+        Color opp = (color == Color.WHITE ? Color.BLACK : Color.WHITE);
+
+        // 2) King-side castling: h-rook unmoved & f,g empty, king does not cross an attacked f
+        boolean rookHMoved = (color == Color.WHITE ? whiteRookHMoved : blackRookHMoved);
+        if (!rookHMoved && isOwnRook(row, 7, color)
+            && isEmpty(row, 5) && isEmpty(row, 6) && !isAttacked(row * 8 + 5, opp)) {
+            moves.add(new Move(r, c, row, 6));
+        }
+
+        // 3) Queen-side castling: a-rook unmoved & b,c,d empty, king does not cross an attacked d
+        boolean rookAMoved = (color == Color.WHITE ? whiteRookAMoved : blackRookAMoved);
+        if (!rookAMoved && isOwnRook(row, 0, color)
+            && isEmpty(row, 1) && isEmpty(row, 2) && isEmpty(row, 3) && !isAttacked(row * 8 + 3, opp)) {
+            moves.add(new Move(r, c, row, 2));
+        }
+    }
+
+    private boolean isOwnRook(int r, int c, Color color) {
+        Piece p = board[r][c];
+        return p != null && p.getType() == PieceType.ROOK && p.getColor() == color;
+    }
+
+
     /** Pawn moves: single, double from start, diagonal captures */
     private void pawnMoves(List<Move> moves, int r, int c, Color color) {
-        int dir = (color == Color.WHITE) ? -1 : 1;
+        int dir      = (color == Color.WHITE) ? -1 : 1;
         int startRow = (color == Color.WHITE) ? 6 : 1;
-        int nr = r + dir;
-        // forward one
+        int nr       = r + dir;
+
+        // 1) Single-step forward (with possible promotion)
         if (inBounds(nr, c) && board[nr][c] == null) {
-            moves.add(new Move(r, c, nr, c));
-            // forward two
+            if (nr == 0 || nr == 7) {
+                // Promotion: one move for each piece type
+                for (PieceType promo : PROMOTIONS) {
+                    moves.add(new Move(r, c, nr, c, promo));
+                }
+            } else {
+                moves.add(new Move(r, c, nr, c));
+            }
+
+            // 2) Two-square jump from start row (no promotion here)
             int nr2 = nr + dir;
             if (r == startRow && inBounds(nr2, c) && board[nr2][c] == null) {
                 moves.add(new Move(r, c, nr2, c));
             }
         }
-        // diagonal captures
-        for (int dc : new int[]{-1, 1}) {
-            int nc = c + dc;
-            if (inBounds(nr, nc) && board[nr][nc] != null &&
-                board[nr][nc].getColor() != color) {
-                moves.add(new Move(r, c, nr, nc));
-            }
-        }
-    }
 
-    /** Knight: eight L‐shape jumps */
-    private void knightMoves(List<Move> moves, int r, int c, Color color) {
-        int[][] deltas = {{2,1},{2,-1},{-2,1},{-2,-1},{1,2},{1,-2},{-1,2},{-1,-2}};
-        for (var d : deltas) {
-            int nr = r + d[0], nc = c + d[1];
-            if (inBounds(nr, nc)) {
-                Piece dest = board[nr][nc];
-                if (dest == null || dest.getColor() != color) {
-                    moves.add(new Move(r, c, nr, nc));
+        // 3) Diagonal captures (with possible promotion)
+        long targets = Attacks.PAWN[color.ordinal()][r * 8 + c] & occupancy[1 - color.ordinal()];
+        for (; targets != 0; targets &= targets - 1) {
+            int nc = Long.numberOfTrailingZeros(targets) & 7;
+            if (nr == 0 || nr == 7) {
+                // Capture-promotion
+                for (PieceType promo : PROMOTIONS) {
+                    moves.add(new Move(r, c, nr, nc, promo));
                 }
+            } else {
+                moves.add(new Move(r, c, nr, nc));
             }
         }
-    }
 
-    /**
-     * Bishop/Rook/Queen sliding moves along given directions.
-     * @param dirs array of {dr,dc}
-     */
-    private void slidingMoves(List<Move> moves, int r, int c, Color color, int[][] dirs) {
-        for (var d : dirs) {
-            int nr = r + d[0], nc = c + d[1];
-            while (inBounds(nr, nc)) {
-                if (board[nr][nc] == null) {
-                    moves.add(new Move(r, c, nr, nc));
-                } else {
-                    if (board[nr][nc].getColor() != color) {
-                        moves.add(new Move(r, c, nr, nc));
-                    }
-                    break;
-                }
-                nr += d[0];
-                nc += d[1];
+        // 4) En Passant
+        if (lastMove != null) {
+            Piece jumped = board[lastMove.toRow][lastMove.toCol];
+            if (jumped != null
+                && jumped.getType() == PieceType.PAWN
+                && jumped.getColor() != color
+                && Math.abs(lastMove.toRow - lastMove.fromRow) == 2
+                && lastMove.toRow == r
+                && Math.abs(lastMove.toCol - c) == 1) {
+                moves.add(new Move(r, c, r + dir, lastMove.toCol));
             }
         }
     }
 
-    /** King: one square any direction (castling not yet implemented) */
-    private void kingMoves(List<Move> moves, int r, int c, Color color) {
-        for (int dr = -1; dr <= 1; dr++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int nr = r + dr, nc = c + dc;
-                if (inBounds(nr, nc)) {
-                    Piece dest = board[nr][nc];
-                    if (dest == null || dest.getColor() != color) {
-                        moves.add(new Move(r, c, nr, nc));
-                    }
-                }
-            }
-        }
-    }
 
-    /** True if (r,c) is on the 8×8 board */
+    /** True if (r,c) is on the 8x8 board */
     private boolean inBounds(int r, int c) {
         return r >= 0 && r < 8 && c >= 0 && c < 8;
     }
@@ -0,0 +1,16 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Piece;
+
+/**
+ * Told about every piece that {@link Board#applyMove} or
+ * {@link Board#undoMove} puts on or takes off a square, so incremental
+ * state (such as a neural evaluator's accumulators) can follow the board
+ * without rescanning it. Squares are numbered {@code row * 8 + col}. A
+ * board has at most one observer, and copies start without one.
+ */
+public interface BoardObserver {
+  void pieceAdded(Piece p, int square);
+
+  void pieceRemoved(Piece p, int square);
+}
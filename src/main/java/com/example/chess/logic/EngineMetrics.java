@@ -0,0 +1,133 @@
+package com.example.chess.logic;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Aggregates {@link SearchStats} across every search it listens to. Safe to
+ * share between engines on different threads; register it once with
+ * {@link #register(String)} to expose it over JMX.
+ */
+public class EngineMetrics implements EngineMetricsMBean, SearchListener {
+  private final LongAdder searches        = new LongAdder();
+  private final LongAdder nodes           = new LongAdder();
+  private final LongAdder qnodes          = new LongAdder();
+  private final LongAdder nanos           = new LongAdder();
+  private final LongAdder depth           = new LongAdder();
+  private final LongAdder cutoffs         = new LongAdder();
+  private final LongAdder firstCutoffs    = new LongAdder();
+  private final LongAdder ttProbes        = new LongAdder();
+  private final LongAdder ttHits          = new LongAdder();
+  private final LongAdder ttCollisions    = new LongAdder();
+  private final DoubleAdder branching     = new DoubleAdder();
+  private final LongAdder branchingCount  = new LongAdder();
+  private volatile SearchStats last;
+
+  @Override
+  public void searchCompleted(SearchResult result) {
+    SearchStats s = result.stats;
+    searches.increment();
+    nodes.add(s.getNodes());
+    qnodes.add(s.quiescenceNodes);
+    nanos.add(s.elapsedNanos);
+    depth.add(s.depthReached);
+    cutoffs.add(s.betaCutoffs);
+    firstCutoffs.add(s.firstMoveCutoffs);
+    ttProbes.add(s.ttProbes);
+    ttHits.add(s.ttHits);
+    ttCollisions.add(s.ttCollisions);
+    double ebf = s.getEffectiveBranchingFactor();
+    if (ebf > 0) {
+      branching.add(ebf);
+      branchingCount.increment();
+    }
+    last = s;
+  }
+
+  /** Registers under {@code com.example.chess:type=EngineMetrics,name=<name>}. */
+  public EngineMetrics register(String name) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName id = new ObjectName("com.example.chess:type=EngineMetrics,name=" + ObjectName.quote(name));
+      if (server.isRegistered(id)) server.unregisterMBean(id);
+      server.registerMBean(this, id);
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register engine metrics", e);
+    }
+    return this;
+  }
+
+  @Override public long getSearches() { return searches.sum(); }
+  @Override public long getNodes() { return nodes.sum(); }
+  @Override public long getQuiescenceNodes() { return qnodes.sum(); }
+  @Override public long getSearchMillis() { return nanos.sum() / 1_000_000; }
+
+  @Override
+  public long getNodesPerSecond() {
+    long n = nanos.sum();
+    return n == 0 ? 0 : nodes.sum() * 1_000_000_000L / n;
+  }
+
+  @Override
+  public double getAverageDepth() {
+    long s = searches.sum();
+    return s == 0 ? 0 : (double) depth.sum() / s;
+  }
+
+  @Override
+  public double getAverageBranchingFactor() {
+    long n = branchingCount.sum();
+    return n == 0 ? 0 : branching.sum() / n;
+  }
+
+  @Override
+  public double getFirstMoveCutoffRate() {
+    long c = cutoffs.sum();
+    return c == 0 ? 0 : (double) firstCutoffs.sum() / c;
+  }
+
+  @Override
+  public double getTtHitRate() {
+    long p = ttProbes.sum();
+    return p == 0 ? 0 : (double) ttHits.sum() / p;
+  }
+
+  @Override
+  public double getTtCollisionRate() {
+    long p = ttProbes.sum();
+    return p == 0 ? 0 : (double) ttCollisions.sum() / p;
+  }
+
+  @Override
+  public int getLastDepth() {
+    SearchStats s = last;
+    return s == null ? 0 : s.depthReached;
+  }
+
+  @Override
+  public long getLastSearchMillis() {
+    SearchStats s = last;
+    return s == null ? 0 : s.elapsedNanos / 1_000_000;
+  }
+
+  @Override
+  public long getLastNodesPerSecond() {
+    SearchStats s = last;
+    return s == null ? 0 : s.getNodesPerSecond();
+  }
+
+  @Override
+  public void reset() {
+    for (LongAdder a : new LongAdder[]{searches, nodes, qnodes, nanos, depth, cutoffs,
+        firstCutoffs, ttProbes, ttHits, ttCollisions, branchingCount}) {
+      a.reset();
+    }
+    branching.reset();
+    last = null;
+  }
+}
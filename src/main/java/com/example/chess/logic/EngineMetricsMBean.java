@@ -0,0 +1,19 @@
+package com.example.chess.logic;
+
+/** JMX view of {@link EngineMetrics}. */
+public interface EngineMetricsMBean {
+  long getSearches();
+  long getNodes();
+  long getQuiescenceNodes();
+  long getSearchMillis();
+  long getNodesPerSecond();
+  double getAverageDepth();
+  double getAverageBranchingFactor();
+  double getFirstMoveCutoffRate();
+  double getTtHitRate();
+  double getTtCollisionRate();
+  int getLastDepth();
+  long getLastSearchMillis();
+  long getLastNodesPerSecond();
+  void reset();
+}
@@ -0,0 +1,196 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of {@link SearchContext}s shared by any number of games. All
+ * memory is allocated up front, so the footprint stays the same however
+ * many games are running. A game checks out a context for one search and
+ * returns it by closing the {@link Lease}; when every context is busy,
+ * {@link #checkout} waits.
+ *
+ * With {@link TableMode#SHARED} all contexts probe one large transposition
+ * table. With {@link TableMode#PER_CONTEXT} each has its own table, and a
+ * caller that passes a session key gets back the context it used last when
+ * that context is free, so a game keeps finding its own earlier results.
+ */
+public class EnginePool {
+  public enum TableMode { SHARED, PER_CONTEXT }
+
+  private final AI engine;
+  private final TableMode mode;
+  private final SearchContext[] contexts;
+  private final ArrayDeque<Slot> idle = new ArrayDeque<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition returned = lock.newCondition();
+  private final long memoryBytes;
+
+  /** {@code hashMb} is the size of the shared table, or of each table in per-context mode. */
+  public EnginePool(AI engine, int contexts, int hashMb, TableMode mode) {
+    if (contexts < 1) throw new IllegalArgumentException("need at least one context");
+    this.engine = engine;
+    this.mode = mode;
+    this.contexts = new SearchContext[contexts];
+    TranspositionTable shared = mode == TableMode.SHARED ? new TranspositionTable(hashMb) : null;
+    long bytes = shared == null ? 0 : shared.sizeInBytes();
+    for (int i = 0; i < contexts; i++) {
+      TranspositionTable tt = shared != null ? shared : new TranspositionTable(hashMb);
+      this.contexts[i] = new SearchContext(tt);
+      if (shared == null) bytes += tt.sizeInBytes();
+      bytes += SearchContext.orderingBytes();
+      idle.add(new Slot(this.contexts[i]));
+    }
+    this.memoryBytes = bytes;
+  }
+
+  /**
+   * As many contexts as fit in {@code maxMemoryMb}, but no more than
+   * {@code maxContexts}.
+   */
+  public static EnginePool withMemoryCap(AI engine, int maxContexts, int maxMemoryMb,
+                                         int hashMb, TableMode mode) {
+    long budget = (long) maxMemoryMb << 20;
+    long table = TranspositionTable.bytesFor(hashMb);
+    long perContext = SearchContext.orderingBytes() + (mode == TableMode.PER_CONTEXT ? table : 0);
+    long fixed = mode == TableMode.SHARED ? table : 0;
+    long fit = (budget - fixed) / perContext;
+    if (fit < 1) throw new IllegalArgumentException(maxMemoryMb + " MB cannot hold one context");
+    return new EnginePool(engine, (int) Math.min(fit, maxContexts), hashMb, mode);
+  }
+
+  public int capacity() { return contexts.length; }
+
+  public TableMode getTableMode() { return mode; }
+
+  /** Memory held by every context and table in the pool. */
+  public long memoryBytes() { return memoryBytes; }
+
+  public int available() {
+    lock.lock();
+    try {
+      return idle.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Lease checkout() throws InterruptedException {
+    return checkout(null);
+  }
+
+  /** Waits for a free context, preferring the one {@code session} used last. */
+  public Lease checkout(Object session) throws InterruptedException {
+    lock.lock();
+    try {
+      while (idle.isEmpty()) returned.await();
+      return new Lease(take(session), session);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Like {@link #checkout(Object)}, but gives up after the timeout and returns null. */
+  public Lease tryCheckout(Object session, long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lock();
+    try {
+      while (idle.isEmpty()) {
+        if (nanos <= 0) return null;
+        nanos = returned.awaitNanos(nanos);
+      }
+      return new Lease(take(session), session);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Slot take(Object session) {
+    if (session != null && mode == TableMode.PER_CONTEXT) {
+      for (Iterator<Slot> it = idle.iterator(); it.hasNext(); ) {
+        Slot s = it.next();
+        if (s.owner != null && s.owner.get() == session) {
+          it.remove();
+          return s;
+        }
+      }
+    }
+    // least recently returned first, so affinity survives as long as possible
+    return idle.pollFirst();
+  }
+
+  private void giveBack(Slot slot, Object session) {
+    lock.lock();
+    try {
+      slot.owner = session == null ? null : new WeakReference<>(session);
+      idle.addLast(slot);
+      returned.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static class Slot {
+    final SearchContext context;
+    WeakReference<Object> owner;
+
+    Slot(SearchContext context) { this.context = context; }
+  }
+
+  /** Exclusive use of one context until closed. Not thread-safe. */
+  public class Lease implements AutoCloseable {
+    private Slot slot;
+    private final Object session;
+
+    private Lease(Slot slot, Object session) {
+      this.slot = slot;
+      this.session = session;
+    }
+
+    /** Searches for {@code player} at the engine's default strength. */
+    public SearchResult search(Board board, Color player) {
+      return search(board, player, AI.DEFAULT_LIMITS);
+    }
+
+    public SearchResult search(Board board, SearchLimits limits) {
+      return search(board, board.getSideToMove(), limits);
+    }
+
+    public SearchResult search(Board board, Color player, SearchLimits limits) {
+      if (slot == null) throw new IllegalStateException("lease already returned");
+      return engine.search(board, player, limits, slot.context);
+    }
+
+    /** Searches at the default strength, reusing and updating a game's {@link AnalysisCache}. */
+    public SearchResult search(Board board, Color player, AnalysisCache cache) {
+      if (slot == null) throw new IllegalStateException("lease already returned");
+      return engine.search(board, player, AI.DEFAULT_LIMITS, slot.context, cache);
+    }
+
+    /** Plays at a {@link SkillLevel}, which brings its own limits. */
+    public SearchResult search(Board board, Color player, SkillLevel level) {
+      if (slot == null) throw new IllegalStateException("lease already returned");
+      return engine.search(board, player, level, slot.context);
+    }
+
+    public List<SearchResult> searchMultiPv(Board board, int lines, SearchLimits limits) {
+      if (slot == null) throw new IllegalStateException("lease already returned");
+      return engine.searchMultiPv(board, board.getSideToMove(), lines, limits, slot.context);
+    }
+
+    @Override
+    public void close() {
+      if (slot != null) {
+        giveBack(slot, session);
+        slot = null;
+      }
+    }
+  }
+}
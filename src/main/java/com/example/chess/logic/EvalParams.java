@@ -0,0 +1,189 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.PieceType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The numbers {@link PieceSquareEvaluator} adds up: five piece values, pawn
+ * to queen, then seven 64-square tables (pawn, knight, bishop, rook, queen,
+ * king and endgame king). Tables are written from White's side with row 0
+ * as the eighth rank, matching {@link Board}; Black's squares are mirrored.
+ *
+ * <p>Parameter files are plain text: a section name followed by its
+ * numbers, in any layout. Sections are {@code values} (five numbers) and
+ * one per table (64 numbers each). Missing sections keep their defaults,
+ * and '#' starts a comment.
+ */
+public final class EvalParams {
+  /** Index of the pawn value; the knight, bishop, rook and queen values follow. */
+  public static final int VALUES = 0;
+  /** Table number of the endgame king table; the others are numbered by {@link PieceType}. */
+  public static final int KING_ENDGAME = 6;
+  private static final int TABLES = 5;
+  private static final String[] TABLE_NAMES =
+      {"pawn", "knight", "bishop", "rook", "queen", "king", "king-endgame"};
+  /** Total number of parameters. */
+  public static final int COUNT = TABLES + TABLE_NAMES.length * 64;
+
+  /** Hand-written starting values. */
+  public static final EvalParams DEFAULTS = new EvalParams(concat(
+      new int[]{100, 300, 300, 500, 900},
+      new int[]{
+          0,  0,  0,  0,  0,  0,  0,  0,
+         50, 50, 50, 50, 50, 50, 50, 50,
+         10, 10, 20, 30, 30, 20, 10, 10,
+          5,  5, 10, 25, 25, 10,  5,  5,
+          0,  0,  0, 20, 20,  0,  0,  0,
+          5, -5,-10,  0,  0,-10, -5,  5,
+          5, 10, 10,-20,-20, 10, 10,  5,
+          0,  0,  0,  0,  0,  0,  0,  0},
+      new int[]{
+        -50,-40,-30,-30,-30,-30,-40,-50,
+        -40,-20,  0,  0,  0,  0,-20,-40,
+        -30,  0, 10, 15, 15, 10,  0,-30,
+        -30,  5, 15, 20, 20, 15,  5,-30,
+        -30,  0, 15, 20, 20, 15,  0,-30,
+        -30,  5, 10, 15, 15, 10,  5,-30,
+        -40,-20,  0,  5,  5,  0,-20,-40,
+        -50,-40,-30,-30,-30,-30,-40,-50},
+      new int[]{
+        -20,-10,-10,-10,-10,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5, 10, 10,  5,  0,-10,
+        -10,  5,  5, 10, 10,  5,  5,-10,
+        -10,  0, 10, 10, 10, 10,  0,-10,
+        -10, 10, 10, 10, 10, 10, 10,-10,
+        -10,  5,  0,  0,  0,  0,  5,-10,
+        -20,-10,-10,-10,-10,-10,-10,-20},
+      new int[]{
+          0,  0,  0,  0,  0,  0,  0,  0,
+          5, 10, 10, 10, 10, 10, 10,  5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+          0,  0,  0,  5,  5,  0,  0,  0},
+      new int[]{
+        -20,-10,-10, -5, -5,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5,  5,  5,  5,  0,-10,
+         -5,  0,  5,  5,  5,  5,  0, -5,
+          0,  0,  5,  5,  5,  5,  0, -5,
+        -10,  5,  5,  5,  5,  5,  0,-10,
+        -10,  0,  5,  0,  0,  0,  0,-10,
+        -20,-10,-10, -5, -5,-10,-10,-20},
+      new int[]{
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -20,-30,-30,-40,-40,-30,-30,-20,
+        -10,-20,-20,-20,-20,-20,-20,-10,
+         20, 20,  0,  0,  0,  0, 20, 20,
+         20, 30, 10,  0,  0, 10, 30, 20},
+      new int[]{
+        -50,-40,-30,-20,-20,-30,-40,-50,
+        -30,-20,-10,  0,  0,-10,-20,-30,
+        -30,-10, 20, 30, 30, 20,-10,-30,
+        -30,-10, 30, 40, 40, 30,-10,-30,
+        -30,-10, 30, 40, 40, 30,-10,-30,
+        -30,-10, 20, 30, 30, 20,-10,-30,
+        -30,-30,  0,  0,  0,  0,-30,-30,
+        -50,-30,-30,-30,-30,-30,-30,-50}));
+
+  private final int[] values;
+
+  public EvalParams(int[] values) {
+    if (values.length != COUNT) throw new IllegalArgumentException("Expected " + COUNT + " parameters, got " + values.length);
+    this.values = values.clone();
+  }
+
+  public int get(int index) { return values[index]; }
+
+  public int[] toArray() { return values.clone(); }
+
+  /** Index of the value of {@code t}; kings have none. */
+  public static int value(PieceType t) {
+    if (t == PieceType.KING) throw new IllegalArgumentException("The king has no value");
+    return VALUES + t.ordinal();
+  }
+
+  /** Index of a table entry, with {@code row} already mirrored for Black. */
+  public static int square(int table, int row, int col) {
+    return TABLES + table * 64 + row * 8 + col;
+  }
+
+  /** Readable name of a parameter, such as "value knight" or "rook g7". */
+  public static String name(int index) {
+    if (index < TABLES) return "value " + PieceType.values()[index].name().toLowerCase();
+    int i = index - TABLES, sq = i % 64;
+    return TABLE_NAMES[i / 64] + " " + (char) ('a' + sq % 8) + (8 - sq / 8);
+  }
+
+  /** Reads a parameter file; see the class comment for the format. */
+  public static EvalParams load(Path file) throws IOException {
+    int[] v = DEFAULTS.toArray();
+    StringBuilder text = new StringBuilder();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      int hash = line.indexOf('#');
+      text.append(hash < 0 ? line : line.substring(0, hash)).append(' ');
+    }
+    String[] tokens = text.toString().trim().split("\\s+");
+    int t = 0;
+    while (t < tokens.length && !tokens[t].isEmpty()) {
+      String section = tokens[t++];
+      int first, count;
+      if (section.equals("values")) {
+        first = VALUES;
+        count = TABLES;
+      } else {
+        int table = Arrays.asList(TABLE_NAMES).indexOf(section);
+        if (table < 0) throw new IOException(file + ": unknown section '" + section + "'");
+        first = square(table, 0, 0);
+        count = 64;
+      }
+      if (t + count > tokens.length) throw new IOException(file + ": section '" + section + "' is short");
+      for (int i = 0; i < count; i++, t++) {
+        try {
+          v[first + i] = Integer.parseInt(tokens[t]);
+        } catch (NumberFormatException e) {
+          throw new IOException(file + ": bad number '" + tokens[t] + "' in section '" + section + "'");
+        }
+      }
+    }
+    return new EvalParams(v);
+  }
+
+  /** Writes every section so {@link #load} reads this back exactly. */
+  public void writeTo(Writer out) throws IOException {
+    out.write("values");
+    for (int i = 0; i < TABLES; i++) out.write(" " + values[VALUES + i]);
+    out.write("\n");
+    for (int table = 0; table < TABLE_NAMES.length; table++) {
+      out.write("\n" + TABLE_NAMES[table] + "\n");
+      for (int row = 0; row < 8; row++) {
+        StringBuilder line = new StringBuilder();
+        for (int col = 0; col < 8; col++) line.append(String.format("%5d", values[square(table, row, col)]));
+        out.write(line.append('\n').toString());
+      }
+    }
+    out.flush();
+  }
+
+  private static int[] concat(int[]... parts) {
+    int[] all = new int[COUNT];
+    int n = 0;
+    for (int[] part : parts) {
+      System.arraycopy(part, 0, all, n, part.length);
+      n += part.length;
+    }
+    return all;
+  }
+}
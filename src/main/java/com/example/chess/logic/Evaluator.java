@@ -0,0 +1,43 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * Static evaluation used at the leaves of the search. Implementations must
+ * be stateless or thread-safe: one instance serves every search an
+ * {@link AI} runs. Per-board state belongs in a {@link BoardObserver}
+ * installed by {@link #attach}.
+ */
+public interface Evaluator {
+  /** Score in centipawns from the point of view of {@code side}. */
+  int evaluate(Board b, Color side);
+
+  /**
+   * Called once on the board a search is about to play moves on, before
+   * the first evaluation. Incremental evaluators install their observer
+   * here; the default needs nothing.
+   */
+  default void attach(Board b) {}
+
+  /**
+   * The evaluator chosen with -Dchess.eval.nnue=FILE (a network for
+   * {@link NnueEvaluator}), or else piece-square tables, with their numbers
+   * read from -Dchess.eval.params=FILE (see {@link EvalParams}) if set.
+   */
+  static Evaluator fromSystemProperties() {
+    String nnue = System.getProperty("chess.eval.nnue");
+    String params = System.getProperty("chess.eval.params");
+    String file = nnue != null ? nnue : params;
+    try {
+      if (nnue != null) return NnueEvaluator.load(Paths.get(nnue));
+      if (params != null) return new PieceSquareEvaluator(EvalParams.load(Paths.get(params)));
+      return new PieceSquareEvaluator();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot load evaluation " + file, e);
+    }
+  }
+}
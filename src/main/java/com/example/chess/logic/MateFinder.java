@@ -0,0 +1,299 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Answers "is there a forced mate?" with depth-first proof-number search
+ * (df-pn) instead of a full-width alpha-beta search.
+ *
+ * Every node carries a proof number and a disproof number: how many more
+ * leaves must be shown to be mates, or to escape mate, before the node is
+ * decided. The search always expands the most promising leaf, the one with
+ * the fewest positions left to prove or disprove. Where the defender has
+ * only one or two replies, which is typical of forcing lines, it therefore
+ * goes very deep very cheaply.
+ *
+ * Nodes are counted in plies left, and the plies left are hashed into the
+ * key. A node is thus the same position searched to the same horizon, and
+ * the search graph has no cycles. Attempts run for mate in 1, 2, ... up to
+ * the limit, so the first mate found is the shortest. The proof and
+ * disproof numbers live in their own bounded table, two slots per bucket.
+ * When both are taken, the entry with less work behind it is replaced.
+ * Not thread-safe: use one finder per thread.
+ */
+public class MateFinder {
+  /** Node budget of {@link #findMate(Board, int)}. */
+  public static final long DEFAULT_NODES = 5_000_000;
+  /** Longest mate, in moves, that can be searched for. */
+  public static final int MAX_MOVES = 32;
+
+  static final int INF = 100_000_000;
+  private static final long[] DEPTH_KEYS = new long[2 * MAX_MOVES];
+  static {
+    SplittableRandom rnd = new SplittableRandom(0x6D617465L);
+    for (int i = 0; i < DEPTH_KEYS.length; i++) DEPTH_KEYS[i] = rnd.nextLong();
+  }
+
+  private final ProofTable table;
+  private long nodes, maxNodes;
+  private boolean stopped;
+  // Proof and disproof numbers of the node just expanded or initialised.
+  private int pnOut, dnOut;
+
+  public MateFinder(int hashMb) {
+    table = new ProofTable(hashMb);
+  }
+
+  public void clear() { table.clear(); }
+
+  /** Searches for a mate by the side to move in at most {@code maxMoves} of its moves. */
+  public MateResult findMate(Board board, int maxMoves) {
+    return findMate(board, maxMoves, DEFAULT_NODES);
+  }
+
+  /** As {@link #findMate(Board, int)}, giving up with UNKNOWN after {@code maxNodes} nodes. */
+  public MateResult findMate(Board board, int maxMoves, long maxNodes) {
+    if (maxMoves < 1 || maxMoves > MAX_MOVES) {
+      throw new IllegalArgumentException("maxMoves must be 1 to " + MAX_MOVES);
+    }
+    long start = System.nanoTime();
+    Board b = new Board(board);
+    Color attacker = b.getSideToMove();
+    nodes = 0;
+    this.maxNodes = maxNodes;
+    stopped = false;
+    MateResult.Status status = MateResult.Status.NO_MATE;
+    int mateIn = 0;
+    List<Move> line = List.of();
+    if (!b.generateLegalMoves(attacker).isEmpty()) {
+      for (int moves = 1; moves <= maxMoves; moves++) {
+        int plies = 2 * moves - 1;
+        mid(b, attacker, true, plies, key(b, plies), INF, INF);
+        if (pnOut == 0) {
+          status = MateResult.Status.MATE;
+          mateIn = moves;
+          line = line(b, attacker, plies);
+          break;
+        }
+        if (stopped) {
+          status = MateResult.Status.UNKNOWN;
+          break;
+        }
+      }
+    }
+    return new MateResult(status, mateIn, line, nodes, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Expands the node until its proof number reaches {@code thpn} or its
+   * disproof number reaches {@code thdn}, then stores both and leaves them
+   * in pnOut and dnOut. Never called on a decided node.
+   */
+  private void mid(Board b, Color side, boolean attacking, int plies, long key, int thpn, int thdn) {
+    long before = nodes;
+    List<Move> moves = b.generateLegalMoves(side);
+    int n = moves.size();
+    int[] pn = new int[n], dn = new int[n];
+    long[] keys = new long[n];
+    Color other = opposite(side);
+    for (int i = 0; i < n; i++) {
+      b.applyMove(moves.get(i));
+      keys[i] = key(b, plies - 1);
+      int slot = table.find(keys[i]);
+      if (slot >= 0) {
+        pn[i] = table.pn(slot);
+        dn[i] = table.dn(slot);
+      } else {
+        initialise(b, other, !attacking, plies - 1);
+        pn[i] = pnOut;
+        dn[i] = dnOut;
+        if (pnOut == 0 || dnOut == 0) table.put(keys[i], pnOut, dnOut, 1);
+      }
+      b.undoMove();
+    }
+
+    while (true) {
+      // The attacker needs one proven move and the defender one escape.
+      int[] own = attacking ? pn : dn, sum = attacking ? dn : pn;
+      int min = INF, second = INF, best = 0, total = 0;
+      for (int i = 0; i < n; i++) {
+        if (own[i] < min) {
+          second = min;
+          min = own[i];
+          best = i;
+        } else if (own[i] < second) {
+          second = own[i];
+        }
+        total = Math.min(INF, total + sum[i]);
+      }
+      int nodePn = attacking ? min : total, nodeDn = attacking ? total : min;
+      if (nodePn >= thpn || nodeDn >= thdn || stopped) {
+        table.put(key, nodePn, nodeDn, nodes - before);
+        pnOut = nodePn;
+        dnOut = nodeDn;
+        return;
+      }
+      // Stay below the second-best sibling; spend the rest of the other threshold.
+      int childPn, childDn;
+      if (attacking) {
+        childPn = Math.min(thpn, second + 1);
+        childDn = thdn >= INF ? INF : thdn - total + dn[best];
+      } else {
+        childDn = Math.min(thdn, second + 1);
+        childPn = thpn >= INF ? INF : thpn - total + pn[best];
+      }
+      b.applyMove(moves.get(best));
+      mid(b, other, !attacking, plies - 1, keys[best], childPn, childDn);
+      b.undoMove();
+      pn[best] = pnOut;
+      dn[best] = dnOut;
+    }
+  }
+
+  /**
+   * Proof and disproof numbers of a new node: decided if it is mate,
+   * stalemate or out of plies; otherwise estimated from the number of
+   * moves, since every defender reply must be refuted.
+   */
+  private void initialise(Board b, Color side, boolean attacking, int plies) {
+    if (++nodes >= maxNodes) stopped = true;
+    if (!attacking && plies == 0) {
+      boolean mated = b.isInCheck(side) && b.generateLegalMoves(side).isEmpty();
+      pnOut = mated ? 0 : INF;
+      dnOut = mated ? INF : 0;
+      return;
+    }
+    int moves = b.generateLegalMoves(side).size();
+    if (moves == 0) {
+      boolean mated = !attacking && b.isInCheck(side);
+      pnOut = mated ? 0 : INF;
+      dnOut = mated ? INF : 0;
+    } else {
+      pnOut = attacking ? 1 : moves;
+      dnOut = attacking ? moves : 1;
+    }
+  }
+
+  /**
+   * Walks a proven tree from the root. The attacker takes the quickest
+   * proven mate and the defender the slowest, so the line shows the mate's
+   * full length. Entries the table has lost are proven again.
+   */
+  private List<Move> line(Board root, Color attacker, int plies) {
+    maxNodes = Long.MAX_VALUE;
+    stopped = false;
+    List<Move> line = new ArrayList<>();
+    Board b = new Board(root);
+    Color side = attacker;
+    boolean attacking = true;
+    while (plies > 0) {
+      List<Move> moves = b.generateLegalMoves(side);
+      Move choice = null;
+      int choicePlies = attacking ? INF : -1;
+      for (Move m : moves) {
+        b.applyMove(m);
+        int proof = shortestProof(b, plies - 1);
+        if (proof == INF && !attacking) {
+          // every defence is refuted, but this proof was overwritten
+          mid(b, opposite(side), true, plies - 1, key(b, plies - 1), INF, INF);
+          proof = pnOut == 0 ? plies - 1 : -1;
+        }
+        b.undoMove();
+        if (attacking ? proof < choicePlies : proof > choicePlies) {
+          choice = m;
+          choicePlies = proof;
+        }
+      }
+      if (attacking && choicePlies == INF) {
+        for (Move m : moves) {
+          b.applyMove(m);
+          mid(b, opposite(side), false, plies - 1, key(b, plies - 1), INF, INF);
+          b.undoMove();
+          if (pnOut == 0) {
+            choice = m;
+            choicePlies = plies - 1;
+            break;
+          }
+        }
+      }
+      if (choice == null) break;
+      line.add(choice);
+      b.applyMove(choice);
+      side = opposite(side);
+      attacking = !attacking;
+      plies = choicePlies;
+    }
+    return line;
+  }
+
+  /** Fewest plies, up to {@code plies}, at which the table holds this node as proven; INF if none. */
+  private int shortestProof(Board b, int plies) {
+    for (int p = plies % 2; p <= plies; p += 2) {
+      int slot = table.find(key(b, p));
+      if (slot >= 0 && table.pn(slot) == 0) return p;
+    }
+    return INF;
+  }
+
+  private static long key(Board b, int plies) {
+    return b.hash() ^ DEPTH_KEYS[plies];
+  }
+
+  private static Color opposite(Color c) {
+    return c == Color.WHITE ? Color.BLACK : Color.WHITE;
+  }
+
+  /** Proof and disproof numbers by key, with the nodes spent on each. */
+  private static final class ProofTable {
+    private static final int ENTRY_BYTES = 24;
+
+    private final long[] keys;
+    private final long[] numbers;  // pn << 32 | dn
+    private final long[] work;     // 0 marks an empty slot
+    private final int mask;
+
+    ProofTable(int megabytes) {
+      long entries = Long.highestOneBit(Math.max(2, ((long) megabytes << 20) / ENTRY_BYTES));
+      int size = (int) Math.min(entries, 1 << 28);
+      keys = new long[size];
+      numbers = new long[size];
+      work = new long[size];
+      mask = size - 2;
+    }
+
+    void clear() {
+      Arrays.fill(keys, 0L);
+      Arrays.fill(numbers, 0L);
+      Arrays.fill(work, 0L);
+    }
+
+    /** Slot holding {@code key}, or -1. */
+    int find(long key) {
+      int i = (int) key & mask;
+      if (work[i] != 0 && keys[i] == key) return i;
+      if (work[i + 1] != 0 && keys[i + 1] == key) return i + 1;
+      return -1;
+    }
+
+    int pn(int slot) { return (int) (numbers[slot] >>> 32); }
+
+    int dn(int slot) { return (int) numbers[slot]; }
+
+    void put(long key, int pn, int dn, long spent) {
+      int i = find(key);
+      if (i < 0) {
+        i = (int) key & mask;
+        if (work[i + 1] < work[i]) i++;
+      }
+      keys[i] = key;
+      numbers[i] = (long) pn << 32 | dn;
+      work[i] = Math.max(1, spent);
+    }
+  }
+}
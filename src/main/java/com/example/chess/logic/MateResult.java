@@ -0,0 +1,47 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Move;
+
+import java.util.List;
+
+/** Outcome of a {@link MateFinder} search. */
+public class MateResult {
+  public enum Status {
+    /** The side to move mates in {@link #mateIn} moves; {@link #line} shows how. */
+    MATE,
+    /** Proven: no mate within the move limit, whatever the attacker plays. */
+    NO_MATE,
+    /** The node budget ran out before either was proven. */
+    UNKNOWN
+  }
+
+  public final Status status;
+  /** The attacker's moves to mate, counting the mating move; 0 unless {@link Status#MATE}. */
+  public final int mateIn;
+  /** A mating line, both sides' moves, ending in mate; empty unless {@link Status#MATE}. */
+  public final List<Move> line;
+  public final long nodes;
+  public final long millis;
+
+  public MateResult(Status status, int mateIn, List<Move> line, long nodes, long millis) {
+    this.status = status;
+    this.mateIn = mateIn;
+    this.line   = List.copyOf(line);
+    this.nodes  = nodes;
+    this.millis = millis;
+  }
+
+  public boolean isMate() { return status == Status.MATE; }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    switch (status) {
+      case MATE:    sb.append("mate in ").append(mateIn); break;
+      case NO_MATE: sb.append("no mate"); break;
+      default:      sb.append("unknown"); break;
+    }
+    for (int i = 0; i < line.size(); i++) sb.append(i == 0 ? ": " : " ").append(line.get(i));
+    return sb.append(" (").append(nodes).append(" nodes, ").append(millis).append(" ms)").toString();
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.PieceType;
+
+/** Counts material only: the cheapest evaluation, used by the easy skill levels. */
+public class MaterialEvaluator implements Evaluator {
+  public static final MaterialEvaluator INSTANCE = new MaterialEvaluator();
+
+  @Override
+  public int evaluate(Board b, Color side) {
+    int score=0;
+    for(int r=0;r<8;r++)for(int c=0;c<8;c++){
+      var p = b.board[r][c];
+      if(p!=null){
+        int v = value(p.getType());
+        score += (p.getColor()==Color.BLACK) ? v : -v;
+      }
+    }
+    return side==Color.BLACK ? score : -score;
+  }
+
+  static int value(PieceType t) {
+    return switch(t){
+      case PAWN -> 100; case KNIGHT, BISHOP -> 300;
+      case ROOK -> 500; case QUEEN -> 900; case KING -> 0;
+    };
+  }
+}
@@ -0,0 +1,203 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Efficiently updatable neural network evaluation. There are 768 inputs,
+ * one per (own or enemy, piece type, square) as seen by one side. They
+ * feed {@code hidden} accumulator units per side. The two sides' clipped
+ * accumulators, the mover's first, feed a small dense layer of
+ * {@code hidden2} clipped units and then one output, scaled to centipawns.
+ *
+ * Only the first layer is large, and a move changes just two to four of
+ * its inputs. Each search board therefore carries an {@link Accumulator},
+ * kept current through {@link BoardObserver} by adding and subtracting
+ * weight rows as pieces come and go. Evaluating a node then costs only the
+ * small dense layers. The loops run through {@link NnueKernels}, with SIMD
+ * where the Vector API is available.
+ *
+ * <p>The first layer is quantized on load: its weights and biases are
+ * rounded to multiples of {@code 1 / INPUT_SCALE} and the accumulators hold
+ * ints. Integer adds are exact, so an accumulator after any sequence of
+ * moves and undos equals one built from scratch; float sums would drift.
+ *
+ * <p>File format, big-endian: int magic "NNUE", int version 1, int inputs
+ * (768), int hidden, int hidden2, float output scale, then as floats the
+ * input weights (768 rows of {@code hidden}), the input biases, the hidden
+ * weights ({@code hidden2} rows of {@code 2 * hidden}), the hidden biases,
+ * the output weights and the output bias.
+ */
+public class NnueEvaluator implements Evaluator {
+  static final int MAGIC = 0x4E4E_5545;  // "NNUE"
+  static final int VERSION = 1;
+  static final int INPUTS = 768;
+  /** First-layer fixed point: 1.0 is this many accumulator units. */
+  static final int INPUT_SCALE = 1 << 10;
+  /** Largest quantized first-layer weight; a bias plus 32 pieces' rows still fit in an int. */
+  static final int MAX_INPUT_WEIGHT = 1 << 20;
+
+  final int hidden, hidden2;
+  final float outputScale;
+  final float[] inputWeights;   // INPUTS x hidden
+  final float[] inputBias;      // hidden
+  final float[] hiddenWeights;  // hidden2 x 2*hidden
+  final float[] hiddenBias;     // hidden2
+  final float[] outputWeights;  // hidden2
+  final float outputBias;
+  private final int[] inputWeightsQ;  // inputWeights * INPUT_SCALE, rounded
+  private final int[] inputBiasQ;     // inputBias * INPUT_SCALE, rounded
+  private final NnueKernels kernels = NnueKernels.INSTANCE;
+
+  NnueEvaluator(int hidden, int hidden2, float outputScale,
+                float[] inputWeights, float[] inputBias,
+                float[] hiddenWeights, float[] hiddenBias,
+                float[] outputWeights, float outputBias) {
+    if (inputWeights.length != INPUTS * hidden || inputBias.length != hidden
+        || hiddenWeights.length != hidden2 * 2 * hidden || hiddenBias.length != hidden2
+        || outputWeights.length != hidden2) {
+      throw new IllegalArgumentException("layer sizes do not match " + hidden + "/" + hidden2);
+    }
+    this.hidden = hidden;
+    this.hidden2 = hidden2;
+    this.outputScale = outputScale;
+    this.inputWeights = inputWeights;
+    this.inputBias = inputBias;
+    this.hiddenWeights = hiddenWeights;
+    this.hiddenBias = hiddenBias;
+    this.outputWeights = outputWeights;
+    this.outputBias = outputBias;
+    this.inputWeightsQ = quantize(inputWeights);
+    this.inputBiasQ = quantize(inputBias);
+  }
+
+  private static int[] quantize(float[] w) {
+    int[] q = new int[w.length];
+    for (int i = 0; i < w.length; i++) {
+      float v = w[i] * INPUT_SCALE;
+      if (!(Math.abs(v) <= MAX_INPUT_WEIGHT)) {
+        throw new IllegalArgumentException("first-layer weight out of range: " + w[i]);
+      }
+      q[i] = Math.round(v);
+    }
+    return q;
+  }
+
+  /** Reads a network in the format described above. */
+  public static NnueEvaluator load(Path file) throws IOException {
+    ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (buf.remaining() < 24 || buf.getInt() != MAGIC) throw new IOException("Not a network file: " + file);
+    int version = buf.getInt();
+    if (version != VERSION) throw new IOException("Unsupported network version " + version);
+    int inputs = buf.getInt(), hidden = buf.getInt(), hidden2 = buf.getInt();
+    float scale = buf.getFloat();
+    if (inputs != INPUTS || hidden <= 0 || hidden2 <= 0 || hidden > 4096 || hidden2 > 4096) {
+      throw new IOException("Unsupported layer sizes " + inputs + "/" + hidden + "/" + hidden2);
+    }
+    long floats = (long) INPUTS * hidden + hidden + (long) hidden2 * 2 * hidden + 2L * hidden2 + 1;
+    if (buf.remaining() != floats * Float.BYTES) throw new IOException("Truncated network file: " + file);
+    FloatBuffer f = buf.asFloatBuffer();
+    try {
+      return new NnueEvaluator(hidden, hidden2, scale,
+          read(f, INPUTS * hidden), read(f, hidden),
+          read(f, hidden2 * 2 * hidden), read(f, hidden2),
+          read(f, hidden2), f.get());
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Unusable network " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static float[] read(FloatBuffer f, int n) {
+    float[] a = new float[n];
+    f.get(a);
+    return a;
+  }
+
+  /** Writes this network so {@link #load} reads it back; for training tools. */
+  public void writeTo(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(INPUTS);
+    data.writeInt(hidden);
+    data.writeInt(hidden2);
+    data.writeFloat(outputScale);
+    for (float[] layer : new float[][]{inputWeights, inputBias, hiddenWeights, hiddenBias, outputWeights}) {
+      for (float w : layer) data.writeFloat(w);
+    }
+    data.writeFloat(outputBias);
+    data.flush();
+  }
+
+  /** Which loops are in use: "scalar" or "vector xN". */
+  public String kernelName() { return kernels.name(); }
+
+  @Override
+  public void attach(Board b) {
+    b.setObserver(new Accumulator(b));
+  }
+
+  @Override
+  public int evaluate(Board b, Color side) {
+    Accumulator acc = b.getObserver() instanceof Accumulator a && a.network() == this ? a : new Accumulator(b);
+    return acc.evaluate(side);
+  }
+
+  /** Input row for {@code p} on {@code square}, seen by {@code perspective}. */
+  static int feature(Piece p, int square, Color perspective) {
+    boolean own = p.getColor() == perspective;
+    // Black sees the board flipped, so both sides' features mean the same thing.
+    int sq = perspective == Color.WHITE ? square : square ^ 56;
+    return ((own ? 0 : 6) + p.getType().ordinal()) * 64 + sq;
+  }
+
+  /** Both sides' first-layer sums for one board, plus scratch space for the dense layers. */
+  final class Accumulator implements BoardObserver {
+    final int[] white = new int[hidden];
+    final int[] black = new int[hidden];
+    private final float[] input = new float[2 * hidden];
+    private final float[] layer2 = new float[hidden2];
+
+    Accumulator(Board b) {
+      System.arraycopy(inputBiasQ, 0, white, 0, hidden);
+      System.arraycopy(inputBiasQ, 0, black, 0, hidden);
+      for (int sq = 0; sq < 64; sq++) {
+        Piece p = b.board[sq >> 3][sq & 7];
+        if (p != null) pieceAdded(p, sq);
+      }
+    }
+
+    NnueEvaluator network() { return NnueEvaluator.this; }
+
+    @Override
+    public void pieceAdded(Piece p, int square) {
+      kernels.add(white, inputWeightsQ, feature(p, square, Color.WHITE) * hidden, hidden);
+      kernels.add(black, inputWeightsQ, feature(p, square, Color.BLACK) * hidden, hidden);
+    }
+
+    @Override
+    public void pieceRemoved(Piece p, int square) {
+      kernels.sub(white, inputWeightsQ, feature(p, square, Color.WHITE) * hidden, hidden);
+      kernels.sub(black, inputWeightsQ, feature(p, square, Color.BLACK) * hidden, hidden);
+    }
+
+    int evaluate(Color side) {
+      kernels.clippedRelu(side == Color.WHITE ? white : black, input, 0, hidden, INPUT_SCALE);
+      kernels.clippedRelu(side == Color.WHITE ? black : white, input, hidden, hidden, INPUT_SCALE);
+      for (int j = 0; j < hidden2; j++) {
+        float v = hiddenBias[j] + kernels.dot(hiddenWeights, j * 2 * hidden, input, 2 * hidden);
+        layer2[j] = Math.min(1f, Math.max(0f, v));
+      }
+      float out = outputBias + kernels.dot(outputWeights, 0, layer2, hidden2);
+      return Math.round(out * outputScale);
+    }
+  }
+}
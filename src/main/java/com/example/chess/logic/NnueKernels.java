@@ -0,0 +1,57 @@
+package com.example.chess.logic;
+
+/**
+ * The loops of {@link NnueEvaluator}: int adds for the accumulators, float
+ * math for the dense layers. {@link #INSTANCE} uses the
+ * Vector API when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and plain loops otherwise.
+ * The vector code lives in {@link NnueVectorKernels} alone, so nothing else
+ * links against the incubator module.
+ */
+class NnueKernels {
+  static final NnueKernels INSTANCE = select();
+
+  private static NnueKernels select() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      try {
+        return new NnueVectorKernels();
+      } catch (LinkageError e) {
+        // fall through to the scalar loops
+      }
+    }
+    return new NnueKernels();
+  }
+
+  /** Name shown in diagnostics. */
+  String name() { return "scalar"; }
+
+  /** {@code dst[i] += src[off + i]} for i below n. */
+  void add(int[] dst, int[] src, int off, int n) {
+    for (int i = 0; i < n; i++) dst[i] += src[off + i];
+  }
+
+  /** {@code dst[i] -= src[off + i]} for i below n. */
+  void sub(int[] dst, int[] src, int off, int n) {
+    for (int i = 0; i < n; i++) dst[i] -= src[off + i];
+  }
+
+  /** {@code dst[dstOff + i] = clamp(src[i], 0, one) / one}: the clipped ReLU, back to floats. */
+  void clippedRelu(int[] src, float[] dst, int dstOff, int n, int one) {
+    float scale = 1f / one;
+    for (int i = 0; i < n; i++) dst[dstOff + i] = Math.min(one, Math.max(0, src[i])) * scale;
+  }
+
+  float dot(float[] a, int aOff, float[] b, int n) {
+    // four independent sums, so the adds do not wait on each other
+    float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+    int i = 0;
+    for (; i + 3 < n; i += 4) {
+      s0 += a[aOff + i]     * b[i];
+      s1 += a[aOff + i + 1] * b[i + 1];
+      s2 += a[aOff + i + 2] * b[i + 2];
+      s3 += a[aOff + i + 3] * b[i + 3];
+    }
+    for (; i < n; i++) s0 += a[aOff + i] * b[i];
+    return (s0 + s1) + (s2 + s3);
+  }
+}
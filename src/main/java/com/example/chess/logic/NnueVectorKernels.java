@@ -0,0 +1,57 @@
+package com.example.chess.logic;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/** {@link NnueKernels} with SIMD lanes; only loaded when the incubator module is present. */
+final class NnueVectorKernels extends NnueKernels {
+  private static final VectorSpecies<Float> S = FloatVector.SPECIES_PREFERRED;
+  // same shape, so int and float loops step by the same lane count
+  private static final VectorSpecies<Integer> I = S.vectorShape().withLanes(int.class);
+
+  @Override
+  String name() { return "vector x" + S.length(); }
+
+  @Override
+  void add(int[] dst, int[] src, int off, int n) {
+    int i = 0;
+    for (int bound = I.loopBound(n); i < bound; i += I.length()) {
+      IntVector.fromArray(I, dst, i).add(IntVector.fromArray(I, src, off + i)).intoArray(dst, i);
+    }
+    for (; i < n; i++) dst[i] += src[off + i];
+  }
+
+  @Override
+  void sub(int[] dst, int[] src, int off, int n) {
+    int i = 0;
+    for (int bound = I.loopBound(n); i < bound; i += I.length()) {
+      IntVector.fromArray(I, dst, i).sub(IntVector.fromArray(I, src, off + i)).intoArray(dst, i);
+    }
+    for (; i < n; i++) dst[i] -= src[off + i];
+  }
+
+  @Override
+  void clippedRelu(int[] src, float[] dst, int dstOff, int n, int one) {
+    float scale = 1f / one;
+    int i = 0;
+    for (int bound = I.loopBound(n); i < bound; i += I.length()) {
+      IntVector v = IntVector.fromArray(I, src, i).max(0).min(one);
+      ((FloatVector) v.convert(VectorOperators.I2F, 0)).mul(scale).intoArray(dst, dstOff + i);
+    }
+    for (; i < n; i++) dst[dstOff + i] = Math.min(one, Math.max(0, src[i])) * scale;
+  }
+
+  @Override
+  float dot(float[] a, int aOff, float[] b, int n) {
+    FloatVector acc = FloatVector.zero(S);
+    int i = 0;
+    for (int bound = S.loopBound(n); i < bound; i += S.length()) {
+      acc = FloatVector.fromArray(S, a, aOff + i).fma(FloatVector.fromArray(S, b, i), acc);
+    }
+    float sum = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < n; i++) sum += a[aOff + i] * b[i];
+    return sum;
+  }
+}
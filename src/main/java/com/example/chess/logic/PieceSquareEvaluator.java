@@ -0,0 +1,77 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.PieceType;
+
+/**
+ * Material plus piece-square tables: centralised knights, advanced pawns,
+ * a sheltered king in the middlegame and an active one in the endgame.
+ * The numbers come from {@link EvalParams}, hand-written by default or
+ * fitted by the Texel tuner.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+  /** Non-pawn material (both sides) at or below which the endgame king table applies. */
+  private static final int ENDGAME_MATERIAL = 2 * 1300;
+
+  private final EvalParams params;
+  private final int[] p;
+
+  public PieceSquareEvaluator() {
+    this(EvalParams.DEFAULTS);
+  }
+
+  public PieceSquareEvaluator(EvalParams params) {
+    this.params = params;
+    this.p = params.toArray();
+  }
+
+  public EvalParams getParams() { return params; }
+
+  @Override
+  public int evaluate(Board b, Color side) {
+    int score = trace(b, null);
+    return side==Color.WHITE ? score : -score;
+  }
+
+  /**
+   * White's score. If {@code counts} is not null, also adds to it how often
+   * each parameter was used: +1 per use for White, -1 for Black. The score
+   * is those counts times the parameters, which is what lets a tuner fit
+   * them by gradient descent.
+   */
+  public int trace(Board b, int[] counts) {
+    int score = 0, pieceMaterial = 0;
+    int whiteKing = -1, blackKing = -1;
+    for(int r=0;r<8;r++)for(int c=0;c<8;c++){
+      var piece = b.board[r][c];
+      if(piece==null) continue;
+      PieceType t = piece.getType();
+      boolean white = piece.getColor()==Color.WHITE;
+      if (t == PieceType.KING) {
+        if (white) whiteKing = r * 8 + c; else blackKing = r * 8 + c;
+        continue;
+      }
+      int value = EvalParams.value(t);
+      int square = EvalParams.square(t.ordinal(), white ? r : 7 - r, c);
+      if (t != PieceType.PAWN) pieceMaterial += p[value];
+      int sign = white ? 1 : -1;
+      score += sign * (p[value] + p[square]);
+      if (counts != null) {
+        counts[value] += sign;
+        counts[square] += sign;
+      }
+    }
+    int king = pieceMaterial <= ENDGAME_MATERIAL ? EvalParams.KING_ENDGAME : PieceType.KING.ordinal();
+    if (whiteKing >= 0) {
+      int square = EvalParams.square(king, whiteKing / 8, whiteKing % 8);
+      score += p[square];
+      if (counts != null) counts[square]++;
+    }
+    if (blackKing >= 0) {
+      int square = EvalParams.square(king, 7 - blackKing / 8, blackKing % 8);
+      score -= p[square];
+      if (counts != null) counts[square]--;
+    }
+    return score;
+  }
+}
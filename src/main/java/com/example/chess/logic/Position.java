@@ -0,0 +1,126 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * An immutable position: four longs of square nibbles plus one int of state,
+ * so any number of threads can share it without locking. Take one with
+ * {@link #of(Board)} and get a private, mutable {@link Board} back with
+ * {@link #toBoard()}. The byte form matches {@link PositionCodec}.
+ *
+ * The halfmove clock is kept, so the fifty-move rule carries over to the
+ * rebuilt board. Earlier positions are not: a board rebuilt from a snapshot
+ * only sees repetitions of positions reached after it. The byte form has
+ * no clock either; it reads back as 0.
+ */
+public final class Position {
+  private static final int CLOCK_SHIFT = 16, CLOCK_MAX = 255;
+  /** The state bits that tell positions apart; the clock is not one of them. */
+  private static final int IDENTITY = (1 << CLOCK_SHIFT) - 1;
+
+  private final long s0, s1, s2, s3;
+  /**
+   * Bits 0-3 castling rights, bit 7 black to move, bits 8-11 en passant file + 1,
+   * bits 16-23 halfmove clock (at most 255).
+   */
+  private final int state;
+  private final long hash;
+
+  private Position(long s0, long s1, long s2, long s3, int state, long hash) {
+    this.s0 = s0; this.s1 = s1; this.s2 = s2; this.s3 = s3;
+    this.state = state;
+    this.hash  = hash;
+  }
+
+  /** Snapshot of {@code b}; the board can change afterwards without affecting it. */
+  public static Position of(Board b) {
+    long[] w = new long[4];
+    for (int sq = 0; sq < 64; sq++) {
+      w[sq >> 4] |= (long) PositionCodec.nibble(b.board[sq >> 3][sq & 7]) << ((sq & 15) * 4);
+    }
+    int state = b.castlingRights() | (b.enPassantFile() + 1) << 8
+        | Math.min(CLOCK_MAX, b.getHalfmoveClock()) << CLOCK_SHIFT;
+    if (b.getSideToMove() == Color.BLACK) state |= 0x80;
+    return new Position(w[0], w[1], w[2], w[3], state, b.hash());
+  }
+
+  public static Position fromFen(String fen) {
+    return of(new Board(fen));
+  }
+
+  /** A fresh board in this position, for one thread to search or play on. */
+  public Board toBoard() {
+    Piece[][] squares = new Piece[8][8];
+    for (int sq = 0; sq < 64; sq++) squares[sq >> 3][sq & 7] = PositionCodec.piece(nibble(sq));
+    return new Board(squares, getSideToMove(), state & 0xF, ((state >> 8) & 0xF) - 1, getHalfmoveClock());
+  }
+
+  /** The position after {@code m}, leaving this one unchanged. */
+  public Position play(Move m) {
+    Board b = toBoard();
+    b.applyMove(m);
+    return of(b);
+  }
+
+  public List<Move> legalMoves() {
+    Board b = toBoard();
+    return b.generateLegalMoves(b.getSideToMove());
+  }
+
+  public Piece getPiece(int r, int c) {
+    return PositionCodec.piece(nibble(r * 8 + c));
+  }
+
+  public Color getSideToMove() {
+    return (state & 0x80) != 0 ? Color.BLACK : Color.WHITE;
+  }
+
+  /** Plies since the last capture or pawn move, capped at 255. */
+  public int getHalfmoveClock() {
+    return state >>> CLOCK_SHIFT;
+  }
+
+  /** Same key the engine's transposition table uses. */
+  public long zobristHash() { return hash; }
+
+  public String toFen() { return toBoard().toFen(); }
+
+  public void writeTo(ByteBuffer out) {
+    for (int sq = 0; sq < 64; sq += 2) out.put((byte) (nibble(sq) << 4 | nibble(sq + 1)));
+    out.put((byte) (state & 0xFF));
+    out.put((byte) ((state >> 8) & 0xF));
+  }
+
+  public static Position readFrom(ByteBuffer in) {
+    return of(PositionCodec.decode(in));
+  }
+
+  private int nibble(int sq) {
+    long w = sq < 16 ? s0 : sq < 32 ? s1 : sq < 48 ? s2 : s3;
+    return (int) (w >>> ((sq & 15) * 4)) & 0xF;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Position)) return false;
+    Position p = (Position) o;
+    return s0 == p.s0 && s1 == p.s1 && s2 == p.s2 && s3 == p.s3
+        && (state & IDENTITY) == (p.state & IDENTITY);
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return toFen();
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed 34-byte position encoding: 32 bytes of square nibbles (a8 first,
+ * high nibble = even square) followed by two state bytes.
+ *
+ * Nibble: 0 empty, 1..6 white pawn..king, 9..14 black pawn..king.
+ * Byte 32: bit 7 black to move, bits 0-3 castling rights as in
+ * {@link Board#castlingRights()}. Byte 33: en passant file + 1, or 0.
+ */
+public final class PositionCodec {
+  public static final int BYTES = 34;
+
+  private static final Piece[] PIECES = new Piece[16];
+
+  static {
+    for (PieceType t : PieceType.values()) {
+      PIECES[t.ordinal() + 1] = new Piece(t, Color.WHITE);
+      PIECES[t.ordinal() + 9] = new Piece(t, Color.BLACK);
+    }
+  }
+
+  private PositionCodec() {}
+
+  public static void encode(Board b, ByteBuffer out) {
+    for (int sq = 0; sq < 64; sq += 2) {
+      out.put((byte) (nibble(b.board[sq >> 3][sq & 7]) << 4 | nibble(b.board[sq >> 3][(sq & 7) + 1])));
+    }
+    int state = b.castlingRights();
+    if (b.getSideToMove() == Color.BLACK) state |= 0x80;
+    out.put((byte) state);
+    out.put((byte) (b.enPassantFile() + 1));
+  }
+
+  public static byte[] encode(Board b) {
+    ByteBuffer buf = ByteBuffer.allocate(BYTES);
+    encode(b, buf);
+    return buf.array();
+  }
+
+  /** Reads one position; pieces are shared, which is safe because {@link Piece} is immutable. */
+  public static Board decode(ByteBuffer in) {
+    Piece[][] squares = new Piece[8][8];
+    for (int sq = 0; sq < 64; sq += 2) {
+      int packed = in.get() & 0xFF;
+      squares[sq >> 3][sq & 7]       = piece(packed >>> 4);
+      squares[sq >> 3][(sq & 7) + 1] = piece(packed & 0xF);
+    }
+    int state = in.get() & 0xFF;
+    int ep = (in.get() & 0xF) - 1;
+    Color side = (state & 0x80) != 0 ? Color.BLACK : Color.WHITE;
+    return new Board(squares, side, state & 0xF, ep, 0);
+  }
+
+  public static Board decode(byte[] bytes) {
+    return decode(ByteBuffer.wrap(bytes));
+  }
+
+  static int nibble(Piece p) {
+    if (p == null) return 0;
+    return p.getType().ordinal() + (p.getColor() == Color.WHITE ? 1 : 9);
+  }
+
+  static Piece piece(int nibble) {
+    Piece p = PIECES[nibble];
+    if (p == null && nibble != 0) throw new IllegalArgumentException("Bad square code " + nibble);
+    return p;
+  }
+}
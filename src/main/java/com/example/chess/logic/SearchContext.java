@@ -0,0 +1,32 @@
+package com.example.chess.logic;
+
+import java.util.Arrays;
+
+/**
+ * The memory one search works in: a transposition table (private or shared
+ * with other contexts) plus killer and history tables. Contexts are
+ * allocated once and reused; see {@link EnginePool}. A context must only be
+ * used by one search at a time.
+ */
+public class SearchContext {
+  final TranspositionTable table;
+  final int[][] killers = new int[AI.MAX_PLY][2];
+  final int[][] history = new int[64][64];
+
+  public SearchContext(TranspositionTable table) {
+    this.table = table;
+  }
+
+  public TranspositionTable getTable() { return table; }
+
+  /** Bytes held by the ordering tables, not counting the transposition table. */
+  public static long orderingBytes() {
+    return (long) AI.MAX_PLY * 2 * Integer.BYTES + 64L * 64 * Integer.BYTES;
+  }
+
+  /** Clears the move-ordering tables; the transposition table is kept. */
+  void reset() {
+    for (int[] k : killers) Arrays.fill(k, 0);
+    for (int[] h : history) Arrays.fill(h, 0);
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.chess.logic;
+
+/** When to stop a search: whichever of depth, node count or time runs out first. */
+public class SearchLimits {
+  public static final int  NO_DEPTH_LIMIT = 64;
+  public static final long NO_LIMIT       = Long.MAX_VALUE;
+
+  public final int depth;
+  public final long nodes;
+  public final long millis;
+
+  public SearchLimits(int depth, long nodes, long millis) {
+    if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+    this.depth  = Math.min(depth, NO_DEPTH_LIMIT);
+    this.nodes  = nodes;
+    this.millis = millis;
+  }
+
+  public static SearchLimits depth(int depth) {
+    return new SearchLimits(depth, NO_LIMIT, NO_LIMIT);
+  }
+
+  public static SearchLimits millis(long millis) {
+    return new SearchLimits(NO_DEPTH_LIMIT, NO_LIMIT, millis);
+  }
+
+  public static SearchLimits nodes(long nodes) {
+    return new SearchLimits(NO_DEPTH_LIMIT, nodes, NO_LIMIT);
+  }
+
+  @Override
+  public String toString() {
+    return "depth=" + depth
+        + (nodes  == NO_LIMIT ? "" : " nodes=" + nodes)
+        + (millis == NO_LIMIT ? "" : " millis=" + millis);
+  }
+}
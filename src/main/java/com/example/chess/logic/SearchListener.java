@@ -0,0 +1,10 @@
+package com.example.chess.logic;
+
+/** Receives progress from {@link AI}, on the thread running the search. */
+public interface SearchListener {
+  /** Called after each iterative-deepening iteration. */
+  default void iterationCompleted(int depth, SearchResult result) {}
+
+  /** Called once with the final result. */
+  default void searchCompleted(SearchResult result) {}
+}
@@ -0,0 +1,51 @@
+package com.example.chess.logic;
+
+/**
+ * Switches for the selective parts of the search, so each technique can be
+ * turned off on its own when A/B testing engine changes.
+ */
+public class SearchOptions {
+  /** Zero-window searches for every move after the first, re-searched on fail-high. */
+  public boolean principalVariationSearch = true;
+  /** Let the opponent move twice; skipped in check and in king+pawn endings. */
+  public boolean nullMovePruning = true;
+  /** Search late, quiet moves to a reduced depth first. */
+  public boolean lateMoveReductions = true;
+  /** Skip quiet moves in the last two plies when the static eval is far below alpha. */
+  public boolean futilityPruning = true;
+
+  public SearchOptions() {}
+
+  public SearchOptions(SearchOptions other) {
+    principalVariationSearch = other.principalVariationSearch;
+    nullMovePruning          = other.nullMovePruning;
+    lateMoveReductions       = other.lateMoveReductions;
+    futilityPruning          = other.futilityPruning;
+  }
+
+  /**
+   * Defaults overridden by -Dchess.search.pvs, .nullmove, .lmr and .futility,
+   * e.g. -Dchess.search.lmr=false.
+   */
+  public static SearchOptions fromSystemProperties() {
+    SearchOptions o = new SearchOptions();
+    o.principalVariationSearch = flag("pvs", o.principalVariationSearch);
+    o.nullMovePruning          = flag("nullmove", o.nullMovePruning);
+    o.lateMoveReductions       = flag("lmr", o.lateMoveReductions);
+    o.futilityPruning          = flag("futility", o.futilityPruning);
+    return o;
+  }
+
+  private static boolean flag(String name, boolean def) {
+    String v = System.getProperty("chess.search." + name);
+    return v == null ? def : Boolean.parseBoolean(v);
+  }
+
+  @Override
+  public String toString() {
+    return "pvs=" + principalVariationSearch
+        + " nullmove=" + nullMovePruning
+        + " lmr=" + lateMoveReductions
+        + " futility=" + futilityPruning;
+  }
+}
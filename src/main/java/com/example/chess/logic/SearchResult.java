@@ -0,0 +1,38 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Move;
+
+import java.util.List;
+
+/** Outcome of a search: best move, its score, the expected line and counters. */
+public class SearchResult {
+  public final Move move;
+  /** Centipawns from the point of view of the side that searched. */
+  public final int score;
+  public final List<Move> pv;
+  public final SearchStats stats;
+
+  public SearchResult(Move move, int score, List<Move> pv, SearchStats stats) {
+    this.move  = move;
+    this.score = score;
+    this.pv    = List.copyOf(pv);
+    this.stats = stats;
+  }
+
+  /** True if the score is a forced mate for either side. */
+  public boolean isMate() {
+    return AI.isMateScore(score);
+  }
+
+  /** Moves to mate, negative when being mated, 0 if the score is not a mate. */
+  public int mateIn() {
+    if (!isMate()) return 0;
+    int plies = AI.MATE - Math.abs(score);
+    return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+  }
+
+  /** "cp 35" or "mate -2", as UCI reports scores. */
+  public String scoreString() {
+    return isMate() ? "mate " + mateIn() : "cp " + score;
+  }
+}
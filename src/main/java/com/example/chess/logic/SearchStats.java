@@ -0,0 +1,69 @@
+package com.example.chess.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Counters collected while one search runs. */
+public class SearchStats {
+  long nodes;
+  long quiescenceNodes;
+  long betaCutoffs;
+  long firstMoveCutoffs;
+  long ttProbes;
+  long ttHits;
+  long ttCollisions;
+  int depthReached;
+  long elapsedNanos;
+  final List<Long> iterationNanos = new ArrayList<>();
+  final List<Long> iterationNodes = new ArrayList<>();
+
+  /** Main-search plus quiescence nodes. */
+  public long getNodes() { return nodes + quiescenceNodes; }
+  public long getQuiescenceNodes() { return quiescenceNodes; }
+  public int getDepthReached() { return depthReached; }
+  public long getElapsedNanos() { return elapsedNanos; }
+  public long getBetaCutoffs() { return betaCutoffs; }
+  public long getTtProbes() { return ttProbes; }
+  public long getTtHits() { return ttHits; }
+  public long getTtCollisions() { return ttCollisions; }
+
+  /** Wall time of each completed iteration, in nanoseconds, shallowest first. */
+  public List<Long> getIterationNanos() { return Collections.unmodifiableList(iterationNanos); }
+
+  /** Nodes searched by each completed iteration, shallowest first. */
+  public List<Long> getIterationNodes() { return Collections.unmodifiableList(iterationNodes); }
+
+  public long getNodesPerSecond() {
+    return elapsedNanos == 0 ? 0 : getNodes() * 1_000_000_000L / elapsedNanos;
+  }
+
+  /** Node growth of the last iteration over the one before it. */
+  public double getEffectiveBranchingFactor() {
+    int n = iterationNodes.size();
+    if (n < 2 || iterationNodes.get(n - 2) == 0) return 0;
+    return (double) iterationNodes.get(n - 1) / iterationNodes.get(n - 2);
+  }
+
+  /** Share of beta cutoffs produced by the first move searched; a move-ordering gauge. */
+  public double getFirstMoveCutoffRate() {
+    return betaCutoffs == 0 ? 0 : (double) firstMoveCutoffs / betaCutoffs;
+  }
+
+  public double getTtHitRate() {
+    return ttProbes == 0 ? 0 : (double) ttHits / ttProbes;
+  }
+
+  public double getTtCollisionRate() {
+    return ttProbes == 0 ? 0 : (double) ttCollisions / ttProbes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "depth=%d nodes=%d qnodes=%d nps=%d ebf=%.2f firstcut=%.2f tthit=%.2f ttcoll=%.3f time=%dms",
+        depthReached, getNodes(), quiescenceNodes, getNodesPerSecond(),
+        getEffectiveBranchingFactor(), getFirstMoveCutoffRate(),
+        getTtHitRate(), getTtCollisionRate(), elapsedNanos / 1_000_000);
+  }
+}
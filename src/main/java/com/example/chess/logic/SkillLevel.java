@@ -0,0 +1,57 @@
+package com.example.chess.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Graded playing strengths. Weaker levels are cheaper searches, not full
+ * searches with noise added afterwards: they stop at a lower depth and node
+ * budget and can drop the positional evaluation terms. The engine then picks
+ * at random among the few best root moves that score within
+ * {@link #margin} of the best, so it makes human-sized mistakes instead of
+ * playing the same line every game.
+ */
+public enum SkillLevel {
+  BEGINNER    ("Beginner",     1,   2_000, false, 4, 150),
+  NOVICE      ("Novice",       2,   5_000, false, 3,  60),
+  INTERMEDIATE("Intermediate", 2,  10_000, true,  2,  30),
+  ADVANCED    ("Advanced",     3,  40_000, true,  2,  10),
+  FULL        ("Full strength", AI.DEFAULT_LIMITS.depth, SearchLimits.NO_LIMIT, true, 1, 0);
+
+  private final String label;
+  /** Depth and node budget; the first iteration always completes. */
+  public final SearchLimits limits;
+  /** Whether to use the engine's full evaluation rather than material only. */
+  public final boolean positional;
+  /** Root moves searched as separate lines to choose among. */
+  public final int candidates;
+  /** How far below the best score, in centipawns, a candidate may be and still be played. */
+  public final int margin;
+
+  SkillLevel(String label, int depth, long nodes, boolean positional, int candidates, int margin) {
+    this.label = label;
+    this.limits = new SearchLimits(depth, nodes, SearchLimits.NO_LIMIT);
+    this.positional = positional;
+    this.candidates = candidates;
+    this.margin = margin;
+  }
+
+  /**
+   * Picks one of {@code lines} (best first, as from
+   * {@link AI#searchMultiPv}), uniformly among those within the margin.
+   * Forced mates are never thrown away.
+   */
+  SearchResult choose(List<SearchResult> lines, Random random) {
+    SearchResult best = lines.get(0);
+    if (lines.size() == 1 || best.isMate()) return best;
+    List<SearchResult> near = new ArrayList<>();
+    for (SearchResult r : lines) {
+      if (r.move != null && r.score >= best.score - margin) near.add(r);
+    }
+    return near.get(random.nextInt(near.size()));
+  }
+
+  @Override
+  public String toString() { return label; }
+}
@@ -0,0 +1,79 @@
+package com.example.chess.logic;
+
+/**
+ * Fixed-size hash table of search results keyed by Zobrist hash.
+ *
+ * Each slot is two longs, the key stored XOR'd with its data, so a torn
+ * write from another thread simply fails verification on the next probe.
+ */
+public class TranspositionTable {
+  static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+  private static final int ENTRY_BYTES = 16;
+
+  private final long[] keys;
+  private final long[] data;
+  private final int mask;
+
+  /** Largest power-of-two table that fits in {@code megabytes}. */
+  public TranspositionTable(int megabytes) {
+    int size = entriesFor(megabytes);
+    keys = new long[size];
+    data = new long[size];
+    mask = size - 1;
+  }
+
+  private static int entriesFor(int megabytes) {
+    long entries = Long.highestOneBit(Math.max(1, ((long) megabytes << 20) / ENTRY_BYTES));
+    return (int) Math.min(entries, 1 << 30);
+  }
+
+  /** Memory a table created with {@code megabytes} will actually take. */
+  public static long bytesFor(int megabytes) {
+    return (long) entriesFor(megabytes) * ENTRY_BYTES;
+  }
+
+  public int capacity() { return keys.length; }
+
+  public long sizeInBytes() { return (long) keys.length * ENTRY_BYTES; }
+
+  public void clear() {
+    java.util.Arrays.fill(keys, 0L);
+    java.util.Arrays.fill(data, 0L);
+  }
+
+  /**
+   * Returns the packed entry for {@code hash}, or 0 if absent. Counts a
+   * collision in {@code stats} when the slot holds a different position.
+   */
+  long probe(long hash, SearchStats stats) {
+    int i = (int) hash & mask;
+    long d = data[i];
+    long k = keys[i] ^ d;
+    stats.ttProbes++;
+    if (k == hash && d != 0) {
+      stats.ttHits++;
+      return d;
+    }
+    if (d != 0) stats.ttCollisions++;
+    return 0;
+  }
+
+  void store(long hash, int move, int score, int depth, int bound) {
+    int i = (int) hash & mask;
+    long old = data[i];
+    if (old != 0 && (keys[i] ^ old) == hash && depth(old) > depth && move == 0) return;
+    long d = (move & 0xFFFFL)
+        | ((score & 0xFFFFFFFFL) << 16)
+        | ((long) (depth & 0xFF) << 48)
+        | ((long) bound << 56)
+        | (1L << 63);
+    keys[i] = hash ^ d;
+    data[i] = d;
+  }
+
+  static int move(long d)  { return (int) (d & 0xFFFF); }
+  static int score(long d) { return (int) (d >>> 16); }
+  static int depth(long d) { return (int) (d >>> 48) & 0xFF; }
+  static int bound(long d) { return (int) (d >>> 56) & 0x3; }
+}
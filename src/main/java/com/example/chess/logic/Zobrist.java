@@ -0,0 +1,48 @@
+package com.example.chess.logic;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys: one random 64-bit value per (piece, square), plus keys for
+ * side to move, castling rights and en passant file.
+ */
+final class Zobrist {
+  /** Indexed by {@link #pieceIndex(Piece)} * 64 + square. */
+  static final long[] PIECE_SQUARE = new long[12 * 64];
+  static final long BLACK_TO_MOVE;
+  /** Indexed by {@link Board#castlingRights()}. */
+  static final long[] CASTLING = new long[16];
+  static final long[] EN_PASSANT = new long[8];
+
+  static {
+    SplittableRandom rnd = new SplittableRandom(0x5EED_C0DEL);
+    for (int i = 0; i < PIECE_SQUARE.length; i++) PIECE_SQUARE[i] = rnd.nextLong();
+    BLACK_TO_MOVE = rnd.nextLong();
+    for (int i = 1; i < CASTLING.length; i++) CASTLING[i] = rnd.nextLong();
+    for (int i = 0; i < EN_PASSANT.length; i++) EN_PASSANT[i] = rnd.nextLong();
+  }
+
+  private Zobrist() {}
+
+  static int pieceIndex(Piece p) {
+    return p.getType().ordinal() * 2 + (p.getColor() == Color.WHITE ? 0 : 1);
+  }
+
+  /** Full hash of the position with {@code side} to move. */
+  static long hash(Board b, Color side) {
+    long h = side == Color.BLACK ? BLACK_TO_MOVE : 0L;
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        Piece p = b.board[r][c];
+        if (p != null) h ^= PIECE_SQUARE[pieceIndex(p) * 64 + r * 8 + c];
+      }
+    }
+    h ^= CASTLING[b.castlingRights()];
+    int ep = b.enPassantFile();
+    if (ep >= 0) h ^= EN_PASSANT[ep];
+    return h;
+  }
+}
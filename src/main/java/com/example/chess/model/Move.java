@@ -2,11 +2,49 @@ package com.example.chess.model;
 
 public class Move {
   public final int fromRow, fromCol, toRow, toCol;
+  public final PieceType promotion;    // null if no promotion
 
+  /** A move without promotion. */
   public Move(int fromRow, int fromCol, int toRow, int toCol) {
-    this.fromRow = fromRow;
-    this.fromCol = fromCol;
-    this.toRow = toRow;
-    this.toCol = toCol;
+    this(fromRow, fromCol, toRow, toCol, null);
+  }
+
+  /** A move promoting to {@code promotion}, or none if it is null. */
+  public Move(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
+    this.fromRow  = fromRow;
+    this.fromCol  = fromCol;
+    this.toRow    = toRow;
+    this.toCol    = toCol;
+    this.promotion = promotion;
+  }
+
+  /**
+   * Parses coordinate notation as produced by {@link #toString()}.
+   * @throws IllegalArgumentException if {@code s} is not of that form
+   */
+  public static Move parse(String s) {
+    if (s.length() != 4 && s.length() != 5) throw new IllegalArgumentException("Bad move: " + s);
+    int fc = s.charAt(0) - 'a', fr = '8' - s.charAt(1);
+    int tc = s.charAt(2) - 'a', tr = '8' - s.charAt(3);
+    if ((fc | fr | tc | tr) < 0 || fc > 7 || fr > 7 || tc > 7 || tr > 7) {
+      throw new IllegalArgumentException("Bad move: " + s);
+    }
+    PieceType promo = null;
+    if (s.length() == 5) {
+      int i = "pnbrqk".indexOf(Character.toLowerCase(s.charAt(4)));
+      if (i < 1 || i > 4) throw new IllegalArgumentException("Bad move: " + s);
+      promo = PieceType.values()[i];
+    }
+    return new Move(fr, fc, tr, tc, promo);
+  }
+
+  /** Coordinate notation, e.g. "e2e4" or "e7e8q"; row 0 is rank 8. */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(5)
+        .append((char) ('a' + fromCol)).append((char) ('8' - fromRow))
+        .append((char) ('a' + toCol)).append((char) ('8' - toRow));
+    if (promotion != null) sb.append("pnbrqk".charAt(promotion.ordinal()));
+    return sb.toString();
   }
 }
@@ -0,0 +1,123 @@
+package com.example.chess.server;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs CPU-heavy work on a fixed set of platform threads. Each session has
+ * its own FIFO queue, and the workers serve sessions round-robin, one task
+ * at a time. A busy session therefore cannot starve the others, and a
+ * session's own tasks never run concurrently. {@link #submit} blocks once
+ * {@code capacity} tasks are pending, which pushes back on the callers.
+ * Once closed, queued and newly submitted tasks are cancelled.
+ */
+class FairScheduler implements AutoCloseable {
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition hasWork  = lock.newCondition();
+  private final Condition hasRoom  = lock.newCondition();
+  private final Map<Object, ArrayDeque<FutureTask<?>>> queues = new HashMap<>();
+  private final ArrayDeque<Object> ready = new ArrayDeque<>();
+  private final int capacity;
+  private final Thread[] workers;
+  private int pending;
+  private boolean closed;
+
+  FairScheduler(int threads, int capacity, String name) {
+    this.capacity = capacity;
+    workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Thread(this::work, name + "-" + (i + 1));
+      workers[i].setDaemon(true);
+      workers[i].start();
+    }
+  }
+
+  <T> Future<T> submit(Object session, Callable<T> task) throws InterruptedException {
+    FutureTask<T> f = new FutureTask<>(task);
+    lock.lock();
+    try {
+      while (pending >= capacity && !closed) hasRoom.await();
+      if (closed) {
+        f.cancel(false);
+        return f;
+      }
+      ArrayDeque<FutureTask<?>> q = queues.get(session);
+      if (q == null) {
+        q = new ArrayDeque<>();
+        queues.put(session, q);
+        ready.add(session);
+        hasWork.signal();
+      }
+      q.add(f);
+      pending++;
+    } finally {
+      lock.unlock();
+    }
+    return f;
+  }
+
+  /** Tasks queued or running. */
+  int pending() {
+    lock.lock();
+    try {
+      return pending;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void work() {
+    while (true) {
+      Object session;
+      FutureTask<?> task;
+      lock.lock();
+      try {
+        while (ready.isEmpty() && !closed) hasWork.awaitUninterruptibly();
+        if (closed) return;
+        session = ready.poll();
+        task = queues.get(session).peek();
+      } finally {
+        lock.unlock();
+      }
+
+      task.run();
+
+      lock.lock();
+      try {
+        ArrayDeque<FutureTask<?>> q = queues.get(session);
+        q.poll();
+        if (q.isEmpty()) {
+          queues.remove(session);
+        } else {
+          ready.add(session);
+          hasWork.signal();
+        }
+        pending--;
+        hasRoom.signal();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      for (ArrayDeque<FutureTask<?>> q : queues.values()) {
+        for (FutureTask<?> t : q) t.cancel(false);
+      }
+      hasWork.signalAll();
+      hasRoom.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
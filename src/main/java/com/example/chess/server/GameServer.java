@@ -0,0 +1,290 @@
+package com.example.chess.server;
+
+import com.example.chess.io.GameJournal;
+import com.example.chess.io.PgnGame;
+import com.example.chess.logic.AI;
+import com.example.chess.logic.Board;
+import com.example.chess.logic.EnginePool;
+import com.example.chess.logic.SearchLimits;
+import com.example.chess.logic.SearchResult;
+import com.example.chess.logic.SkillLevel;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless game server: every connection is a {@link GameSession} on its
+ * own thread, validating moves with {@link Board#isLegal}, while engine
+ * searches share a fixed pool of CPU workers through a {@link FairScheduler}.
+ * Search memory comes from an {@link EnginePool} with one context per
+ * worker, so it does not grow with the number of games.
+ *
+ * A game left unfinished, because its client disconnected or started
+ * another, waits to be resumed by id from any connection, for up to
+ * {@link #setIdleTimeout the idle timeout}; after that it is abandoned
+ * as if it had ended unfinished. With a
+ * {@link GameJournal} the games in progress also survive a restart, and
+ * with a {@link MoveStreamHub} they can be watched by game id.
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.server.GameServer --port 7777 --journal games.journal --stream-port 7778
+ * </pre>
+ */
+public class GameServer implements AutoCloseable {
+  private static final long EVICTION_MILLIS = 60_000;
+
+  private final int port;
+  private final SearchLimits limits;
+  private final FairScheduler scheduler;
+  private final EnginePool engines;
+  private final ExecutorService sessions = VirtualThreads.newPerTaskExecutor("session-");
+  private final AtomicLong ids = new AtomicLong();
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicLong gameIds = new AtomicLong();
+  /** Unfinished games no session is playing, by game id. */
+  private final Map<Long, Suspended> suspended = new ConcurrentHashMap<>();
+  private volatile long idleMillis = TimeUnit.MINUTES.toMillis(30);
+  private final AtomicLong lastEviction = new AtomicLong(System.currentTimeMillis());
+  private volatile GameJournal journal;
+  private volatile MoveStreamHub stream;
+  private volatile ServerSocket listener;
+
+  public GameServer(int port, int workers, SearchLimits limits, int hashMb, EnginePool.TableMode mode) {
+    this.port = port;
+    this.limits = limits;
+    this.scheduler = new FairScheduler(workers, workers * 64, "engine");
+    this.engines = new EnginePool(new AI(), workers, hashMb, mode);
+  }
+
+  /** Accepts connections until {@link #close()}; blocks the calling thread. */
+  public void serve() throws IOException {
+    try (ServerSocket ss = new ServerSocket()) {
+      ss.setReuseAddress(true);
+      ss.bind(new InetSocketAddress(port), 1024);
+      listener = ss;
+      while (!ss.isClosed()) {
+        Socket s;
+        try {
+          s = ss.accept();
+        } catch (IOException e) {
+          if (ss.isClosed()) break;
+          throw e;
+        }
+        s.setTcpNoDelay(true);
+        active.incrementAndGet();
+        sessions.execute(new GameSession(this, s, ids.incrementAndGet()));
+      }
+    }
+  }
+
+  /** Port actually bound, once {@link #serve()} is listening; useful with port 0. */
+  public int getLocalPort() {
+    ServerSocket ss = listener;
+    return ss == null ? -1 : ss.getLocalPort();
+  }
+
+  public int getActiveSessions() { return active.get(); }
+
+  /**
+   * Journals every game from now on to {@code journal}, whose recovered
+   * games become resumable. Call before {@link #serve()}.
+   */
+  public void setJournal(GameJournal journal) {
+    for (GameJournal.Game g : journal.recovered().values()) {
+      suspended.put(g.id, new Suspended(g.board, g.human(), g.level()));
+    }
+    this.journal = journal;
+  }
+
+  /** How long an unfinished game waits for RESUME before it is abandoned. */
+  public void setIdleTimeout(long millis) {
+    this.idleMillis = millis;
+  }
+
+  /** Streams every game from now on to {@code stream}'s watchers. Call before {@link #serve()}. */
+  public void setMoveStream(MoveStreamHub stream) {
+    this.stream = stream;
+  }
+
+  /** An unfinished game waiting for {@link #resume}. */
+  static final class Suspended {
+    final Board board;
+    final Color human;
+    final SkillLevel level;
+    final long since = System.currentTimeMillis();
+
+    Suspended(Board board, Color human, SkillLevel level) {
+      this.board = board;
+      this.human = human;
+      this.level = level;
+    }
+  }
+
+  long newGame(Board board, Color human, SkillLevel level) {
+    GameJournal j = journal;
+    long id = j != null ? j.newGameId() : gameIds.incrementAndGet();
+    if (j != null) {
+      try {
+        j.start(id, board, GameJournal.info(human, level, null));
+      } catch (IOException e) {
+        journalFailed(id, e);
+      }
+    }
+    MoveStreamHub h = stream;
+    if (h != null) h.start(id, board);
+    return id;
+  }
+
+  void gameResumed(long id, Board board) {
+    MoveStreamHub h = stream;
+    if (h != null) h.start(id, board);
+  }
+
+  void gameMove(long id, Move m, Board board) {
+    MoveStreamHub h = stream;
+    if (h != null) h.move(id, m, board);
+    GameJournal j = journal;
+    if (j == null) return;
+    try {
+      j.move(id, m, board);
+    } catch (IOException e) {
+      journalFailed(id, e);
+    }
+  }
+
+  void gameEnded(long id, String result) {
+    MoveStreamHub h = stream;
+    if (h != null) h.end(id, result);
+    GameJournal j = journal;
+    if (j == null) return;
+    try {
+      j.end(id);
+    } catch (IOException e) {
+      journalFailed(id, e);
+    }
+  }
+
+  void suspend(long id, Suspended game) {
+    evictIdle();
+    suspended.put(id, game);
+  }
+
+  /**
+   * Abandons the games that have waited longer than the idle timeout.
+   * Runs at most once a minute, from whichever session suspends a game.
+   */
+  private void evictIdle() {
+    long now = System.currentTimeMillis();
+    long last = lastEviction.get();
+    if (now - last < EVICTION_MILLIS || !lastEviction.compareAndSet(last, now)) return;
+    for (Map.Entry<Long, Suspended> e : suspended.entrySet()) {
+      if (now - e.getValue().since > idleMillis && suspended.remove(e.getKey(), e.getValue())) {
+        gameEnded(e.getKey(), PgnGame.UNFINISHED);
+      }
+    }
+  }
+
+  /** Takes an unfinished game for a session to continue, or null if there is none by that id. */
+  Suspended resume(long id) {
+    return suspended.remove(id);
+  }
+
+  private static void journalFailed(long id, IOException e) {
+    System.err.println("Could not journal game " + id + ": " + e);
+  }
+
+  /**
+   * Searches on an engine worker, queued fairly behind other sessions. A
+   * null {@code level} plays at the server's configured limits. The worker
+   * gets {@code board} to itself: pass a copy, which keeps the game's
+   * earlier positions so the search sees repetitions.
+   */
+  SearchResult think(GameSession session, Board board, SkillLevel level)
+      throws InterruptedException, ExecutionException {
+    return scheduler.submit(session, () -> {
+      try (EnginePool.Lease engine = engines.checkout(session)) {
+        return level == null
+            ? engine.search(board, limits)
+            : engine.search(board, board.getSideToMove(), level);
+      }
+    }).get();
+  }
+
+  void sessionClosed(GameSession session) {
+    active.decrementAndGet();
+  }
+
+  @Override
+  public void close() throws IOException {
+    ServerSocket ss = listener;
+    if (ss != null) ss.close();
+    sessions.shutdownNow();
+    scheduler.close();
+    MoveStreamHub h = stream;
+    if (h != null) h.close();
+    GameJournal j = journal;
+    if (j != null) j.close();
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = 7777;
+    int workers = Runtime.getRuntime().availableProcessors();
+    int depth = SearchLimits.NO_DEPTH_LIMIT;
+    long millis = 200;
+    int hashMb = 16;
+    EnginePool.TableMode mode = EnginePool.TableMode.PER_CONTEXT;
+    String journalFile = null;
+    long idleMinutes = 30;
+    int streamPort = -1;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--port":     port    = Integer.parseInt(args[++i]); break;
+        case "--workers":  workers = Integer.parseInt(args[++i]); break;
+        case "--depth":    depth   = Integer.parseInt(args[++i]); break;
+        case "--movetime": millis  = Long.parseLong(args[++i]); break;
+        case "--hash":     hashMb  = Integer.parseInt(args[++i]); break;
+        case "--shared-hash": mode = EnginePool.TableMode.SHARED; break;
+        case "--journal":  journalFile = args[++i]; break;
+        case "--idle-minutes": idleMinutes = Long.parseLong(args[++i]); break;
+        case "--stream-port": streamPort = Integer.parseInt(args[++i]); break;
+        default:
+          System.err.println("Usage: GameServer [--port P] [--workers N] [--depth D] [--movetime MS]"
+              + " [--hash MB] [--shared-hash] [--journal FILE] [--idle-minutes M]"
+              + " [--stream-port P]");
+          return;
+      }
+    }
+    GameServer server = new GameServer(port, workers,
+        new SearchLimits(depth, SearchLimits.NO_LIMIT, millis), hashMb, mode);
+    server.setIdleTimeout(TimeUnit.MINUTES.toMillis(idleMinutes));
+    if (journalFile != null) {
+      try {
+        GameJournal journal = new GameJournal(Paths.get(journalFile));
+        server.setJournal(journal);
+        System.err.printf("Recovered %d unfinished games from %s%n", journal.recovered().size(), journalFile);
+      } catch (IOException e) {
+        System.err.println("Game journal disabled: " + e.getMessage());
+      }
+    }
+    if (streamPort >= 0) {
+      MoveStreamHub hub = new MoveStreamHub(streamPort);
+      server.setMoveStream(hub);
+      System.err.printf("Streaming games on %d%n", hub.getLocalPort());
+    }
+    System.err.printf("Listening on %d with %d engine workers, %d MB of search memory (%s threads for sessions)%n",
+        port, workers, server.engines.memoryBytes() >> 20, VirtualThreads.available() ? "virtual" : "platform");
+    server.serve();
+  }
+}
@@ -0,0 +1,216 @@
+package com.example.chess.server;
+
+import com.example.chess.logic.Board;
+import com.example.chess.logic.SearchResult;
+import com.example.chess.logic.SkillLevel;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * One client connection playing one game at a time against the engine.
+ * Runs on its own (virtual, where available) thread and blocks freely;
+ * engine searches are handed to the server's {@link FairScheduler}.
+ *
+ * <pre>
+ * NEW [white|black] [level] [fen]
+ *                           start a game, playing the given colour against
+ *                           a skill level (beginner ... full); without one
+ *                           the engine uses the server's limits
+ * RESUME id                 continue an unfinished game, this connection's
+ *                           or another's, also from before a restart, until
+ *                           it has waited longer than the idle timeout
+ * MOVE e2e4                 play a move (promotion as e7e8q)
+ * FEN                       current position
+ * QUIT                      close the connection
+ * </pre>
+ *
+ * Replies: GAME id fen, OK move, AI move, END result reason, FEN fen, ERR message.
+ */
+class GameSession implements Runnable {
+  private final GameServer server;
+  private final Socket socket;
+  private final long id;
+  private long gameId;
+  private Board board;
+  private Color human;
+  private SkillLevel level;
+  private boolean over = true;
+
+  GameSession(GameServer server, Socket socket, long id) {
+    this.server = server;
+    this.socket = socket;
+    this.id = id;
+  }
+
+  @Override
+  public void run() {
+    try (socket;
+         BufferedReader in = new BufferedReader(
+             new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+         PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty()) continue;
+        String[] parts = line.split("\\s+", 2);
+        String arg = parts.length > 1 ? parts[1] : "";
+        switch (parts[0].toUpperCase()) {
+          case "NEW":  newGame(arg, out); break;
+          case "RESUME": resume(arg, out); break;
+          case "MOVE": move(arg, out); break;
+          case "FEN":  out.println(board == null ? "ERR no game" : "FEN " + board.toFen()); break;
+          case "QUIT": out.println("BYE"); return;
+          default:     out.println("ERR unknown command " + parts[0]);
+        }
+      }
+    } catch (IOException e) {
+      // client went away
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (CancellationException e) {
+      // server closed while the engine move was queued
+    } finally {
+      leaveGame();
+      server.sessionClosed(this);
+    }
+  }
+
+  long getId() { return id; }
+
+  /** Leaves an unfinished game for a later RESUME. */
+  private void leaveGame() {
+    if (board != null && !over) server.suspend(gameId, new GameServer.Suspended(board, human, level));
+    board = null;
+    over = true;
+  }
+
+  private void newGame(String arg, PrintWriter out) throws InterruptedException {
+    leaveGame();
+    // the colour is optional, so the first word may already be the level or the FEN
+    String[] a = arg.split("\\s+", 2);
+    human = Color.WHITE;
+    String rest = arg;
+    if (a[0].equalsIgnoreCase("white") || a[0].equalsIgnoreCase("black")) {
+      human = a[0].equalsIgnoreCase("black") ? Color.BLACK : Color.WHITE;
+      rest = a.length > 1 ? a[1] : "";
+    }
+    level = null;
+    String[] l = rest.split("\\s+", 2);
+    for (SkillLevel s : SkillLevel.values()) {
+      if (s.name().equalsIgnoreCase(l[0])) {
+        level = s;
+        rest = l.length > 1 ? l[1] : "";
+      }
+    }
+    try {
+      board = rest.isEmpty() ? new Board() : new Board(rest);
+    } catch (IllegalArgumentException e) {
+      board = null;
+      out.println("ERR " + e.getMessage());
+      return;
+    }
+    over = false;
+    gameId = server.newGame(board, human, level);
+    out.println("GAME " + gameId + " " + board.toFen());
+    if (!checkEnd(out) && board.getSideToMove() != human) engineMove(out);
+  }
+
+  private void resume(String arg, PrintWriter out) throws InterruptedException {
+    long wanted;
+    try {
+      wanted = Long.parseLong(arg.trim());
+    } catch (NumberFormatException e) {
+      out.println("ERR bad game id " + arg);
+      return;
+    }
+    GameServer.Suspended game = server.resume(wanted);
+    if (game == null) {
+      out.println("ERR no unfinished game " + wanted);
+      return;
+    }
+    leaveGame();
+    gameId = wanted;
+    board = game.board;
+    human = game.human;
+    level = game.level;
+    over = false;
+    server.gameResumed(gameId, board);
+    out.println("GAME " + gameId + " " + board.toFen());
+    if (!checkEnd(out) && board.getSideToMove() != human) engineMove(out);
+  }
+
+  private void move(String arg, PrintWriter out) throws InterruptedException {
+    if (board == null || over) {
+      out.println("ERR no game in progress");
+      return;
+    }
+    if (board.getSideToMove() != human) {
+      out.println("ERR not your turn");
+      return;
+    }
+    Move m;
+    try {
+      m = Move.parse(arg.trim());
+    } catch (IllegalArgumentException e) {
+      out.println("ERR " + e.getMessage());
+      return;
+    }
+    if (board.getPiece(m.fromRow, m.fromCol) == null
+        || board.getPiece(m.fromRow, m.fromCol).getColor() != human
+        || !board.isLegal(m)) {
+      out.println("ERR illegal move " + arg);
+      return;
+    }
+    board.applyMove(m);
+    server.gameMove(gameId, m, board);
+    out.println("OK " + m);
+    if (!checkEnd(out)) engineMove(out);
+  }
+
+  private void engineMove(PrintWriter out) throws InterruptedException {
+    SearchResult r;
+    try {
+      r = server.think(this, new Board(board), level);
+    } catch (ExecutionException e) {
+      out.println("ERR engine failure " + e.getCause());
+      return;
+    }
+    board.applyMove(r.move);
+    server.gameMove(gameId, r.move, board);
+    out.println("AI " + r.move);
+    checkEnd(out);
+  }
+
+  /** Reports and records the end of the game: mate, stalemate, repetition or fifty moves. */
+  private boolean checkEnd(PrintWriter out) {
+    Color side = board.getSideToMove();
+    String result = "1/2-1/2", reason;
+    if (!board.generateLegalMoves(side).isEmpty()) {
+      if (board.isThreefoldRepetition()) {
+        reason = "repetition";
+      } else if (board.isFiftyMoveDraw()) {
+        reason = "fifty-move";
+      } else {
+        return false;
+      }
+    } else if (board.isInCheck(side)) {
+      result = side == Color.WHITE ? "0-1" : "1-0";
+      reason = "checkmate";
+    } else {
+      reason = "stalemate";
+    }
+    out.println("END " + result + " " + reason);
+    over = true;
+    server.gameEnded(gameId, result);
+    return true;
+  }
+}
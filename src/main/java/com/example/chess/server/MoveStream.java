@@ -0,0 +1,131 @@
+package com.example.chess.server;
+
+import com.example.chess.io.GameCodec;
+import com.example.chess.io.PgnGame;
+import com.example.chess.logic.Board;
+import com.example.chess.logic.PositionCodec;
+import com.example.chess.model.Move;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format of a {@link MoveStreamHub} game stream. Nearly every frame is
+ * a move in two bytes. The other frames start with bit 15 set.
+ *
+ * <pre>
+ * 0ppp tttt ttff ffff       move, as {@link GameCodec#packMove}
+ * 0x8001 ply:u16 position:34 clock:u8
+ *                           checkpoint: the whole position after ply
+ *                           moves, as {@link PositionCodec}, and the
+ *                           halfmove clock
+ * 0x8002 result:u8          end: 0 unfinished, 1 white won, 2 black won, 3 draw
+ * </pre>
+ *
+ * A stream opens with a checkpoint, then the moves since it. A checkpoint
+ * follows every {@link #CHECKPOINT_PLIES}th move. Checkpoints let a client
+ * join mid-game, catch up after falling behind, and check the board it
+ * built from the moves. All values are big-endian.
+ */
+public final class MoveStream {
+  /** Moves between checkpoints, which bounds what a joining client replays. */
+  public static final int CHECKPOINT_PLIES = 32;
+
+  static final int MOVE_BYTES = 2;
+  static final int CHECKPOINT_BYTES = 2 + 2 + PositionCodec.BYTES + 1;
+  static final int END_BYTES = 3;
+  private static final int CONTROL = 0x8000;
+  private static final int CHECKPOINT = CONTROL | 1, END = CONTROL | 2;
+  private static final String[] RESULTS = {
+      PgnGame.UNFINISHED, PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW
+  };
+
+  private MoveStream() {}
+
+  /** Called by a {@link Reader} as frames arrive; the boards are the reader's own. */
+  public interface Listener {
+    void checkpoint(int ply, Board board);
+
+    void move(Move m, Board board);
+
+    void end(String result);
+  }
+
+  static ByteBuffer move(Move m) {
+    return ByteBuffer.allocate(MOVE_BYTES).putShort(0, GameCodec.packMove(m)).asReadOnlyBuffer();
+  }
+
+  static ByteBuffer checkpoint(int ply, Board board) {
+    ByteBuffer buf = ByteBuffer.allocate(CHECKPOINT_BYTES);
+    buf.putShort((short) CHECKPOINT).putShort((short) ply);
+    PositionCodec.encode(board, buf);
+    buf.put((byte) Math.min(255, board.getHalfmoveClock()));
+    return buf.flip().asReadOnlyBuffer();
+  }
+
+  static ByteBuffer end(String result) {
+    int code = 0;
+    for (int i = 0; i < RESULTS.length; i++) {
+      if (RESULTS[i].equals(result)) code = i;
+    }
+    return ByteBuffer.allocate(END_BYTES).putShort((short) END).put((byte) code).flip().asReadOnlyBuffer();
+  }
+
+  /**
+   * Decodes one game's stream and keeps its board, replaying each move
+   * with {@link Board#applyMove}. A checkpoint that disagrees with the
+   * board built from the moves is reported as an {@link IllegalStateException}.
+   */
+  public static final class Reader {
+    private final Listener listener;
+    private Board board;
+    private int ply;
+
+    public Reader(Listener listener) {
+      this.listener = listener;
+    }
+
+    /** The position so far, or null before the first checkpoint. */
+    public Board getBoard() { return board; }
+
+    /** Moves since the stream started, wrapping at 65536 as in the checkpoints. */
+    public int getPly() { return ply; }
+
+    /**
+     * Reads every whole frame in {@code in}, leaving a partial one at its
+     * position for the next call, after {@code compact()} and more input.
+     */
+    public void read(ByteBuffer in) {
+      while (in.remaining() >= MOVE_BYTES) {
+        int word = in.getShort(in.position()) & 0xFFFF;
+        if ((word & CONTROL) == 0) {
+          in.position(in.position() + MOVE_BYTES);
+          if (board == null) throw new IllegalStateException("Move before the first checkpoint");
+          Move m = GameCodec.unpackMove(word);
+          board.applyMove(m);
+          ply = (ply + 1) & 0xFFFF;
+          listener.move(m, board);
+        } else if (word == CHECKPOINT) {
+          if (in.remaining() < CHECKPOINT_BYTES) return;
+          in.position(in.position() + 2);
+          int at = in.getShort() & 0xFFFF;
+          Board position = PositionCodec.decode(in);
+          int clock = in.get() & 0xFF;
+          String fen = position.toFen() + " " + clock + " 1";
+          if (board != null && at == ply && !fen.equals(board.toFen() + " " + Math.min(255, board.getHalfmoveClock()) + " 1")) {
+            throw new IllegalStateException("Checkpoint at ply " + at + " does not match the moves: " + fen);
+          }
+          // Keep the board we have when it matches, as it also knows the earlier positions.
+          if (board == null || at != ply) board = new Board(fen);
+          ply = at;
+          listener.checkpoint(ply, board);
+        } else if (word == END) {
+          if (in.remaining() < END_BYTES) return;
+          in.position(in.position() + 2);
+          listener.end(RESULTS[in.get() & 3]);
+        } else {
+          throw new IllegalStateException("Unknown frame " + Integer.toHexString(word));
+        }
+      }
+    }
+  }
+}
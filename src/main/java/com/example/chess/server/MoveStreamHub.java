@@ -0,0 +1,293 @@
+package com.example.chess.server;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams games to any number of watching clients in the {@link MoveStream}
+ * format, from one selector thread over non-blocking channels. A client
+ * connects and sends the 8-byte id of the game it wants. It gets the latest
+ * checkpoint and the moves since, then every move as it is played, and
+ * the connection closes after the end frame. Unknown or finished games get
+ * an unfinished end frame at once.
+ *
+ * Each frame is encoded once, on the thread that publishes it. Every
+ * subscriber's queue shares the frame's bytes, and a queue goes out in one
+ * gathering write. A subscriber more than {@link #MAX_BACKLOG} bytes behind
+ * has its queue replaced by the latest checkpoint and the moves since, so
+ * one slow client costs bounded memory and never holds up the others.
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.server.GameServer --port 7777 --stream-port 7778
+ * </pre>
+ */
+public class MoveStreamHub implements Closeable {
+  static final int MAX_BACKLOG = 64 << 10;
+
+  /** A game's catch-up frames, owned by the selector thread. */
+  private static final class Game {
+    ByteBuffer checkpoint;
+    final List<ByteBuffer> tail = new ArrayList<>();
+    final List<Subscriber> subscribers = new ArrayList<>();
+  }
+
+  private static final class Subscriber {
+    final SocketChannel channel;
+    final ByteBuffer request = ByteBuffer.allocate(Long.BYTES);
+    final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+    int queued;
+    Game game;
+    boolean closing;
+
+    Subscriber(SocketChannel channel) {
+      this.channel = channel;
+    }
+  }
+
+  private final Selector selector;
+  private final ServerSocketChannel listener;
+  private final Thread thread;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final Map<Long, Game> games = new HashMap<>();
+  /** Plies since each game's last checkpoint, counted on the publishing threads. */
+  private final Map<Long, Integer> plies = new ConcurrentHashMap<>();
+  private final AtomicInteger subscribers = new AtomicInteger();
+  private volatile boolean open = true;
+
+  /** Listens on {@code port} (0 for any free port) and starts the selector thread. */
+  public MoveStreamHub(int port) throws IOException {
+    selector = Selector.open();
+    listener = ServerSocketChannel.open();
+    listener.bind(new InetSocketAddress(port), 1024);
+    listener.configureBlocking(false);
+    listener.register(selector, SelectionKey.OP_ACCEPT);
+    thread = new Thread(this::run, "move-stream");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public int getLocalPort() { return listener.socket().getLocalPort(); }
+
+  /** Clients currently subscribed to a game. */
+  public int getSubscribers() { return subscribers.get(); }
+
+  /** Starts, or restarts after a resume, the stream of game {@code id} at {@code board}. */
+  public void start(long id, Board board) {
+    plies.put(id, 0);
+    ByteBuffer frame = MoveStream.checkpoint(0, board);
+    submit(() -> {
+      Game g = games.computeIfAbsent(id, k -> new Game());
+      g.checkpoint = frame;
+      g.tail.clear();
+      for (int i = g.subscribers.size() - 1; i >= 0; i--) {
+        Subscriber s = g.subscribers.get(i);
+        resync(s);
+        flush(s);
+      }
+    });
+  }
+
+  /** Publishes {@code m}, already played on {@code board}, with a checkpoint every so often. */
+  public void move(long id, Move m, Board board) {
+    Integer n = plies.computeIfPresent(id, (k, v) -> v + 1);
+    if (n == null) return;
+    ByteBuffer frame = MoveStream.move(m);
+    ByteBuffer checkpoint = null;
+    if (n % MoveStream.CHECKPOINT_PLIES == 0) checkpoint = MoveStream.checkpoint(n, board);
+    ByteBuffer next = checkpoint;
+    submit(() -> {
+      Game g = games.get(id);
+      if (g == null) return;
+      deliver(g, frame);
+      if (next != null) {
+        deliver(g, next);
+        g.checkpoint = next;
+        g.tail.clear();
+      } else {
+        g.tail.add(frame);
+      }
+    });
+  }
+
+  /** Ends game {@code id}'s stream; its subscribers are sent the result and disconnected. */
+  public void end(long id, String result) {
+    if (plies.remove(id) == null) return;
+    ByteBuffer frame = MoveStream.end(result);
+    submit(() -> {
+      Game g = games.remove(id);
+      if (g == null) return;
+      for (int i = g.subscribers.size() - 1; i >= 0; i--) {
+        Subscriber s = g.subscribers.get(i);
+        enqueue(s, frame.duplicate());
+        s.closing = true;
+        flush(s);
+      }
+    });
+  }
+
+  @Override
+  public void close() throws IOException {
+    open = false;
+    selector.wakeup();
+    try {
+      thread.join(1000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void submit(Runnable task) {
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  private void run() {
+    try {
+      while (open) {
+        selector.select();
+        Runnable task;
+        while ((task = tasks.poll()) != null) task.run();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) continue;
+          if (key.isAcceptable()) {
+            accept();
+          } else {
+            Subscriber s = (Subscriber) key.attachment();
+            if (key.isReadable()) read(s);
+            if (key.isValid() && key.isWritable()) flush(s);
+          }
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Move stream stopped: " + e);
+    } finally {
+      for (SelectionKey key : selector.keys()) closeQuietly(key);
+      try {
+        selector.close();
+      } catch (IOException ignored) {
+        // shutting down
+      }
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel ch = listener.accept();
+    if (ch == null) return;
+    ch.configureBlocking(false);
+    ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    ch.register(selector, SelectionKey.OP_READ, new Subscriber(ch));
+  }
+
+  /** Reads the subscription; after it, only notices the client leaving. */
+  private void read(Subscriber s) {
+    try {
+      ByteBuffer buf = s.request.hasRemaining() ? s.request : ByteBuffer.allocate(64);
+      if (s.channel.read(buf) < 0) {
+        drop(s);
+        return;
+      }
+      if (buf != s.request || buf.hasRemaining() || s.closing) return;
+      Game g = games.get(buf.getLong(0));
+      if (g == null || g.checkpoint == null) {
+        enqueue(s, MoveStream.end(null));
+        s.closing = true;
+      } else {
+        s.game = g;
+        g.subscribers.add(s);
+        subscribers.incrementAndGet();
+        resync(s);
+      }
+      flush(s);
+    } catch (IOException e) {
+      drop(s);
+    }
+  }
+
+  /** Queues {@code frame} for every subscriber; backwards, as a failed write drops one. */
+  private void deliver(Game g, ByteBuffer frame) {
+    for (int i = g.subscribers.size() - 1; i >= 0; i--) {
+      Subscriber s = g.subscribers.get(i);
+      // the game's catch-up frames do not include this one yet
+      if (s.queued + frame.remaining() > MAX_BACKLOG) resync(s);
+      enqueue(s, frame.duplicate());
+      flush(s);
+    }
+  }
+
+  /** Replaces what {@code s} has queued with its game's checkpoint and the moves since. */
+  private void resync(Subscriber s) {
+    ByteBuffer head = s.queue.peek();
+    s.queue.clear();
+    s.queued = 0;
+    // a frame already partly sent must be finished first
+    if (head != null && head.position() > 0) enqueue(s, head);
+    enqueue(s, s.game.checkpoint.duplicate());
+    for (ByteBuffer frame : s.game.tail) enqueue(s, frame.duplicate());
+  }
+
+  private void enqueue(Subscriber s, ByteBuffer frame) {
+    s.queue.add(frame);
+    s.queued += frame.remaining();
+  }
+
+  private void flush(Subscriber s) {
+    SelectionKey key = s.channel.keyFor(selector);
+    if (key == null || !key.isValid()) return;
+    try {
+      if (!s.queue.isEmpty()) {
+        long written = s.channel.write(s.queue.toArray(new ByteBuffer[0]));
+        s.queued -= (int) written;
+        while (!s.queue.isEmpty() && !s.queue.peek().hasRemaining()) s.queue.poll();
+      }
+      if (s.queue.isEmpty()) {
+        if (s.closing) {
+          drop(s);
+          return;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+      } else {
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+      }
+    } catch (IOException e) {
+      drop(s);
+    }
+  }
+
+  private void drop(Subscriber s) {
+    if (s.game != null && s.game.subscribers.remove(s)) subscribers.decrementAndGet();
+    closeQuietly(s.channel.keyFor(selector));
+  }
+
+  private static void closeQuietly(SelectionKey key) {
+    if (key == null) return;
+    key.cancel();
+    try {
+      key.channel().close();
+    } catch (IOException ignored) {
+      // already gone
+    }
+  }
+}
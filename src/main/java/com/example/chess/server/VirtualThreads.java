@@ -0,0 +1,36 @@
+package com.example.chess.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One-thread-per-task executors that use virtual threads when the runtime
+ * has them (JDK 21+). The build targets Java 17, so the factory method is
+ * looked up reflectively and platform threads are the fallback.
+ */
+final class VirtualThreads {
+  private VirtualThreads() {}
+
+  static boolean available() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  static ExecutorService newPerTaskExecutor(String namePrefix) {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      AtomicInteger ids = new AtomicInteger();
+      return Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, namePrefix + ids.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      });
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.chess.tools;
+
+import com.example.chess.io.EpdReader;
+import com.example.chess.io.EpdRecord;
+import com.example.chess.io.PgnPositionSource;
+import com.example.chess.io.PgnReader;
+import com.example.chess.io.PositionSource;
+import com.example.chess.logic.AI;
+import com.example.chess.logic.Board;
+import com.example.chess.logic.SearchLimits;
+import com.example.chess.logic.SearchOptions;
+import com.example.chess.logic.SearchResult;
+import com.example.chess.logic.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless analysis of every position in an EPD file, or of every position
+ * of every game in a PGN file (chosen by the ".pgn" extension).
+ *
+ * The input is read one position at a time and at most a few positions per
+ * worker are in flight, so memory stays flat however large the file is.
+ * Each worker thread keeps its own engine and hash table. Results are
+ * written as they finish, one tab-separated line each:
+ * index, id, best move, score, depth, nodes, principal variation.
+ * With {@code --multipv K} each position gets up to K lines, best first,
+ * and the id is suffixed with the line number ("id/2").
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.tools.BatchAnalyzer \
+ *     --input positions.epd --output results.tsv --threads 8 --movetime 500
+ * </pre>
+ */
+public class BatchAnalyzer {
+  private final int threads;
+  private final SearchLimits limits;
+  private final int hashMb;
+  private final int multiPv;
+
+  public BatchAnalyzer(int threads, SearchLimits limits, int hashMb) {
+    this(threads, limits, hashMb, 1);
+  }
+
+  public BatchAnalyzer(int threads, SearchLimits limits, int hashMb, int multiPv) {
+    this.threads = threads;
+    this.limits  = limits;
+    this.hashMb  = hashMb;
+    this.multiPv = multiPv;
+  }
+
+  /** Analyzes every position from {@code source}; returns how many were written. */
+  public long run(PositionSource source, Writer out) throws IOException, InterruptedException {
+    AtomicInteger workerIds = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "analysis-" + workerIds.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    ThreadLocal<AI> engines = ThreadLocal.withInitial(
+        () -> new AI(SearchOptions.fromSystemProperties(), new TranspositionTable(hashMb)));
+    Semaphore inFlight = new Semaphore(threads * 2);
+    AtomicLong written = new AtomicLong();
+    long start = System.nanoTime();
+    long index = 0;
+    try {
+      EpdRecord rec;
+      while ((rec = source.next()) != null) {
+        inFlight.acquire();
+        final EpdRecord position = rec;
+        final long n = ++index;
+        pool.execute(() -> {
+          try {
+            String line = analyze(engines.get(), n, position);
+            synchronized (out) {
+              out.write(line);
+              out.write('\n');
+            }
+            long done = written.incrementAndGet();
+            if (done % 1000 == 0) {
+              long secs = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+              System.err.printf("%d positions, %d/s%n", done, done / secs);
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          } finally {
+            inFlight.release();
+          }
+        });
+      }
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+      synchronized (out) {
+        out.flush();
+      }
+    }
+    return written.get();
+  }
+
+  private String analyze(AI ai, long n, EpdRecord position) {
+    String id = position.id(Long.toString(n));
+    Board board;
+    try {
+      board = position.toBoard();
+    } catch (IllegalArgumentException e) {
+      return n + "\t" + id + "\terror\t" + e.getMessage();
+    }
+    List<SearchResult> lines = ai.searchMultiPv(board, board.getSideToMove(), multiPv, limits);
+    StringBuilder sb = new StringBuilder(128 * lines.size());
+    for (int k = 0; k < lines.size(); k++) {
+      SearchResult r = lines.get(k);
+      if (k > 0) sb.append('\n');
+      sb.append(n).append('\t').append(id);
+      if (multiPv > 1) sb.append('/').append(k + 1);
+      sb.append('\t')
+        .append(r.move == null ? "(none)" : r.move.toString()).append('\t')
+        .append(r.scoreString()).append('\t')
+        .append(r.stats.getDepthReached()).append('\t')
+        .append(r.stats.getNodes()).append('\t');
+      for (int i = 0; i < r.pv.size(); i++) {
+        if (i > 0) sb.append(' ');
+        sb.append(r.pv.get(i));
+      }
+    }
+    return sb.toString();
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path input = null, output = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int depth = SearchLimits.NO_DEPTH_LIMIT;
+    long millis = SearchLimits.NO_LIMIT;
+    int hashMb = 16;
+    int multiPv = 1;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--input":    input   = Paths.get(args[++i]); break;
+        case "--output":   output  = Paths.get(args[++i]); break;
+        case "--threads":  threads = Integer.parseInt(args[++i]); break;
+        case "--depth":    depth   = Integer.parseInt(args[++i]); break;
+        case "--movetime": millis  = Long.parseLong(args[++i]); break;
+        case "--hash":     hashMb  = Integer.parseInt(args[++i]); break;
+        case "--multipv":  multiPv = Integer.parseInt(args[++i]); break;
+        default:
+          System.err.println("Unknown option: " + args[i]);
+          usage();
+          return;
+      }
+    }
+    if (input == null || output == null) {
+      usage();
+      return;
+    }
+    if (depth == SearchLimits.NO_DEPTH_LIMIT && millis == SearchLimits.NO_LIMIT) depth = 4;
+    SearchLimits limits = new SearchLimits(depth, SearchLimits.NO_LIMIT, millis);
+
+    BatchAnalyzer analyzer = new BatchAnalyzer(threads, limits, hashMb, multiPv);
+    long start = System.nanoTime();
+    BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+    try (PositionSource source = input.toString().toLowerCase().endsWith(".pgn")
+             ? new PgnPositionSource(new PgnReader(reader))
+             : new EpdReader(reader);
+         BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      long n = analyzer.run(source, out);
+      System.err.printf("Analyzed %d positions in %.1fs with %d threads (%s)%n",
+          n, (System.nanoTime() - start) / 1e9, threads, limits);
+    }
+  }
+
+  private static void usage() {
+    System.err.println("Usage: BatchAnalyzer --input FILE.epd|FILE.pgn --output FILE"
+        + " [--threads N] [--depth D] [--movetime MS] [--hash MB] [--multipv K]");
+  }
+}
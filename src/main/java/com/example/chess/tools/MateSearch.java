@@ -0,0 +1,78 @@
+package com.example.chess.tools;
+
+import com.example.chess.io.EpdReader;
+import com.example.chess.io.EpdRecord;
+import com.example.chess.logic.Board;
+import com.example.chess.logic.MateFinder;
+import com.example.chess.logic.MateResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Asks {@link MateFinder} whether the side to move has a forced mate, for
+ * one FEN or for every position of an EPD file (one tab-separated line
+ * each: id, then the result with its mating line).
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.tools.MateSearch --fen "kbK5/pp6/1P6/8/8/8/8/R7 w - -" --moves 3
+ * java -cp target/classes com.example.chess.tools.MateSearch --input mates.epd --moves 5 --nodes 20000000
+ * </pre>
+ */
+public class MateSearch {
+  private MateSearch() {}
+
+  public static void main(String[] args) throws Exception {
+    String fen = null, input = null;
+    int moves = 5;
+    long nodes = MateFinder.DEFAULT_NODES;
+    int hashMb = 64;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--fen":   fen    = args[++i]; break;
+        case "--input": input  = args[++i]; break;
+        case "--moves": moves  = Integer.parseInt(args[++i]); break;
+        case "--nodes": nodes  = Long.parseLong(args[++i]); break;
+        case "--hash":  hashMb = Integer.parseInt(args[++i]); break;
+        default:
+          System.err.println("Unknown option: " + args[i]);
+          usage();
+          return;
+      }
+    }
+    if ((fen == null) == (input == null) || moves < 1 || moves > MateFinder.MAX_MOVES) {
+      usage();
+      return;
+    }
+    MateFinder finder = new MateFinder(hashMb);
+    if (fen != null) {
+      System.out.println(finder.findMate(new Board(fen), moves, nodes));
+      return;
+    }
+    int mates = 0, count = 0, bad = 0;
+    try (EpdReader in = new EpdReader(Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8))) {
+      EpdRecord rec;
+      while ((rec = in.next()) != null) {
+        count++;
+        Board board;
+        try {
+          board = rec.toBoard();
+        } catch (IllegalArgumentException e) {
+          bad++;
+          System.out.println(rec.id(Integer.toString(count)) + "\terror\t" + e.getMessage());
+          continue;
+        }
+        MateResult r = finder.findMate(board, moves, nodes);
+        if (r.isMate()) mates++;
+        System.out.println(rec.id(Integer.toString(count)) + "\t" + r);
+      }
+    }
+    System.err.printf("%d of %d positions have a mate in %d or less%n", mates, count - bad, moves);
+    if (bad > 0) System.err.printf("%d malformed positions skipped%n", bad);
+  }
+
+  private static void usage() {
+    System.err.println("Usage: MateSearch (--fen FEN | --input FILE.epd) [--moves N] [--nodes N] [--hash MB]");
+  }
+}
@@ -0,0 +1,385 @@
+package com.example.chess.tools;
+
+import com.example.chess.io.EpdReader;
+import com.example.chess.io.EpdRecord;
+import com.example.chess.io.PgnGame;
+import com.example.chess.io.PgnWriter;
+import com.example.chess.logic.AI;
+import com.example.chess.logic.Board;
+import com.example.chess.logic.EvalParams;
+import com.example.chess.logic.Evaluator;
+import com.example.chess.logic.MaterialEvaluator;
+import com.example.chess.logic.NnueEvaluator;
+import com.example.chess.logic.PieceSquareEvaluator;
+import com.example.chess.logic.SearchContext;
+import com.example.chess.logic.SearchLimits;
+import com.example.chess.logic.SearchOptions;
+import com.example.chess.logic.SearchResult;
+import com.example.chess.logic.TranspositionTable;
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays two engine configurations against each other to tell whether a
+ * change made the engine stronger, or only slower. Every opening of the
+ * suite is played twice with colours swapped, on as many threads as asked.
+ * Games that are clearly decided are adjudicated early. The report gives
+ * the Elo difference with a 95% error bar, plus each side's nodes per
+ * second and time per move.
+ *
+ * An engine is described by comma-separated settings: the search switches
+ * of {@link SearchOptions} ({@code pvs}, {@code nullmove}, {@code lmr},
+ * {@code futility}) and {@code eval=material|pst|pst:FILE|nnue:FILE}. The defaults are those
+ * of {@code new AI()}.
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.tools.SelfPlay \
+ *     --a "lmr=true" --b "lmr=false" --games 400 --threads 8 --nodes 20000
+ * </pre>
+ */
+public class SelfPlay {
+  /** Short, balanced openings used when no --openings file is given. */
+  static final String[] DEFAULT_OPENINGS = {
+      "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq -",  // e4 e5 Nf3 Nc6
+      "rnbqkbnr/pp2pppp/3p4/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq -",   // e4 c5 Nf3 d6
+      "rnbqkbnr/ppp2ppp/4p3/3p4/2PP4/8/PP2PPPP/RNBQKBNR w KQkq -",     // d4 d5 c4 e6
+      "rnbqkb1r/pppp1ppp/4pn2/8/2PP4/8/PP2PPPP/RNBQKBNR w KQkq -",     // d4 Nf6 c4 e6
+      "rnbqkbnr/ppp2ppp/4p3/3p4/3PP3/8/PPP2PPP/RNBQKBNR w KQkq -",     // e4 e6 d4 d5
+      "rnbqkbnr/pp2pppp/2p5/3p4/3PP3/8/PPP2PPP/RNBQKBNR w KQkq -",     // e4 c6 d4 d5
+      "rnbqkb1r/pppp1ppp/5n2/4p3/2P5/2N5/PP1PPPPP/R1BQKBNR w KQkq -",  // c4 e5 Nc3 Nf6
+      "rnbqkb1r/ppp1pppp/5n2/3p4/8/5NP1/PPPPPP1P/RNBQKB1R w KQkq -",   // Nf3 d5 g3 Nf6
+      "rnbqkb1r/pppppp1p/5np1/8/2PP4/8/PP2PPPP/RNBQKBNR w KQkq -",     // d4 Nf6 c4 g6
+      "rnbqkb1r/pppp1ppp/5n2/4p3/2B1P3/8/PPPP1PPP/RNBQK1NR w KQkq -",  // e4 e5 Bc4 Nf6
+      "rnbqkb1r/ppp1pppp/5n2/3p4/3P4/5N2/PPP1PPPP/RNBQKB1R w KQkq -",  // d4 d5 Nf3 Nf6
+      "rnb1kbnr/ppp1pppp/8/3q4/8/8/PPPP1PPP/RNBQKBNR w KQkq -",        // e4 d5 exd5 Qxd5
+  };
+
+  /** Adjudicate a win once both engines agree one side is this far ahead... */
+  private static final int RESIGN_SCORE = 1000;
+  /** ...for this many consecutive plies. */
+  private static final int RESIGN_PLIES = 6;
+  /** Adjudicate a draw after this many plies... */
+  private static final int DRAW_AFTER_PLIES = 80;
+  /** ...once the score stays this close to zero... */
+  private static final int DRAW_SCORE = 10;
+  /** ...for this many consecutive plies. */
+  private static final int DRAW_PLIES = 12;
+
+  /** One side of the match: a configured engine plus its running totals. */
+  static final class Engine {
+    final String name;
+    final AI ai;
+    final ThreadLocal<SearchContext> contexts;
+    final LongAdder nodes = new LongAdder();
+    final LongAdder nanos = new LongAdder();
+    final LongAdder moves = new LongAdder();
+
+    Engine(String name, String spec, int hashMb) {
+      this.name = name;
+      SearchOptions options = new SearchOptions();
+      Evaluator eval = new PieceSquareEvaluator();
+      for (String setting : spec.split(",")) {
+        if (setting.isBlank()) continue;
+        String[] kv = setting.trim().split("=", 2);
+        String value = kv.length > 1 ? kv[1].trim() : "true";
+        switch (kv[0].trim()) {
+          case "pvs":      options.principalVariationSearch = Boolean.parseBoolean(value); break;
+          case "nullmove": options.nullMovePruning = Boolean.parseBoolean(value); break;
+          case "lmr":      options.lateMoveReductions = Boolean.parseBoolean(value); break;
+          case "futility": options.futilityPruning = Boolean.parseBoolean(value); break;
+          case "eval":
+            if (value.equals("material")) eval = MaterialEvaluator.INSTANCE;
+            else if (value.equals("pst")) eval = new PieceSquareEvaluator();
+            else if (value.startsWith("pst:")) eval = loadParams(value.substring(4));
+            else if (value.startsWith("nnue:")) eval = loadNetwork(value.substring(5));
+            else throw new IllegalArgumentException("Unknown evaluator: " + value);
+            break;
+          default: throw new IllegalArgumentException("Unknown engine setting: " + kv[0]);
+        }
+      }
+      this.ai = new AI(options, eval);
+      this.contexts = ThreadLocal.withInitial(() -> new SearchContext(new TranspositionTable(hashMb)));
+    }
+
+    private static Evaluator loadParams(String file) {
+      try {
+        return new PieceSquareEvaluator(EvalParams.load(Paths.get(file)));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot load parameters " + file, e);
+      }
+    }
+
+    private static Evaluator loadNetwork(String file) {
+      try {
+        return NnueEvaluator.load(Paths.get(file));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot load network " + file, e);
+      }
+    }
+
+    String describe() {
+      return name + " [" + ai.getOptions() + " eval=" + ai.getEvaluator().getClass().getSimpleName() + "]";
+    }
+  }
+
+  private final Engine a, b;
+  private final SearchLimits limits;
+  private final int maxPlies;
+  private final LongAdder aWins = new LongAdder(), draws = new LongAdder(), bWins = new LongAdder();
+  private final Map<String, LongAdder> endings = new TreeMap<>();
+
+  public SelfPlay(Engine a, Engine b, SearchLimits limits, int maxPlies) {
+    this.a = a;
+    this.b = b;
+    this.limits = limits;
+    this.maxPlies = maxPlies;
+  }
+
+  /**
+   * Plays {@code games} games, cycling through {@code openings} with each
+   * opening played from both sides. Finished games go to {@code pgn} if it
+   * is not null.
+   */
+  public void run(List<String> openings, int games, int threads, PgnWriter pgn)
+      throws InterruptedException, ExecutionException {
+    AtomicInteger ids = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "selfplay-" + ids.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    AtomicInteger finished = new AtomicInteger();
+    long start = System.nanoTime();
+    List<Future<?>> pending = new ArrayList<>(games);
+    try {
+      for (int i = 0; i < games; i++) {
+        final int round = i;
+        pending.add(pool.submit(() -> {
+          String fen = openings.get(round / 2 % openings.size());
+          boolean aWhite = round % 2 == 0;
+          PgnGame game = play(round + 1, fen, aWhite ? a : b, aWhite ? b : a);
+          String result = game.getResult();
+          if (result.equals(PgnGame.DRAW)) draws.increment();
+          else if (result.equals(PgnGame.WHITE_WINS) == aWhite) aWins.increment();
+          else bWins.increment();
+          if (pgn != null) {
+            synchronized (pgn) {
+              pgn.write(game);
+            }
+          }
+          int done = finished.incrementAndGet();
+          if (done % 10 == 0) {
+            System.err.printf("%d/%d games, +%d =%d -%d, %.0fs%n", done, games,
+                aWins.sum(), draws.sum(), bWins.sum(), (System.nanoTime() - start) / 1e9);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> f : pending) f.get();
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /** One game from {@code fen}; the result tag is always set. */
+  PgnGame play(int round, String fen, Engine white, Engine black) {
+    Board board = new Board(fen);
+    PgnGame game = new PgnGame();
+    game.setTag("Event", "Self-play");
+    game.setTag("Round", Integer.toString(round));
+    game.setTag("White", white.name);
+    game.setTag("Black", black.name);
+    game.setTag("SetUp", "1");
+    game.setTag("FEN", fen);
+    white.contexts.get().getTable().clear();
+    black.contexts.get().getTable().clear();
+
+    int resignRun = 0, drawRun = 0;
+    for (int ply = 0; ; ply++) {
+      Color side = board.getSideToMove();
+      if (board.generateLegalMoves(side).isEmpty()) {
+        if (board.isInCheck(side)) {
+          return finish(game, side == Color.WHITE ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS, "checkmate");
+        }
+        return finish(game, PgnGame.DRAW, "stalemate");
+      }
+      if (board.isThreefoldRepetition()) return finish(game, PgnGame.DRAW, "repetition");
+      if (board.isFiftyMoveDraw())       return finish(game, PgnGame.DRAW, "fifty moves");
+      if (insufficientMaterial(board))    return finish(game, PgnGame.DRAW, "insufficient material");
+      if (ply >= maxPlies)                return finish(game, PgnGame.DRAW, "length limit");
+
+      Engine e = side == Color.WHITE ? white : black;
+      SearchResult r = e.ai.search(board, side, limits, e.contexts.get());
+      e.nodes.add(r.stats.getNodes());
+      e.nanos.add(r.stats.getElapsedNanos());
+      e.moves.increment();
+
+      // Scores from White's side; both engines must agree for a run to continue.
+      int whiteScore = side == Color.WHITE ? r.score : -r.score;
+      if (Math.abs(whiteScore) >= RESIGN_SCORE) {
+        int sign = Integer.signum(whiteScore);
+        resignRun = Integer.signum(resignRun) == sign ? resignRun + sign : sign;
+      } else {
+        resignRun = 0;
+      }
+      drawRun = ply >= DRAW_AFTER_PLIES && Math.abs(whiteScore) <= DRAW_SCORE ? drawRun + 1 : 0;
+
+      board.applyMove(r.move);
+      game.addMove(r.move);
+      if (Math.abs(resignRun) >= RESIGN_PLIES) {
+        return finish(game, resignRun > 0 ? PgnGame.WHITE_WINS : PgnGame.BLACK_WINS, "adjudicated win");
+      }
+      if (drawRun >= DRAW_PLIES) return finish(game, PgnGame.DRAW, "adjudicated draw");
+    }
+  }
+
+  private PgnGame finish(PgnGame game, String result, String reason) {
+    game.setResult(result);
+    game.setTag("Termination", reason);
+    synchronized (endings) {
+      endings.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+    return game;
+  }
+
+  /** Bare kings, or king and one minor piece against a bare king. */
+  private static boolean insufficientMaterial(Board b) {
+    int minors = 0;
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        Piece p = b.getPiece(r, c);
+        if (p == null || p.getType() == PieceType.KING) continue;
+        if (p.getType() != PieceType.KNIGHT && p.getType() != PieceType.BISHOP) return false;
+        if (++minors > 1) return false;
+      }
+    }
+    return true;
+  }
+
+  /** Wins, draws, Elo with its 95% interval, and each engine's speed. */
+  public String report() {
+    long w = aWins.sum(), d = draws.sum(), l = bWins.sum(), n = w + d + l;
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("Games: %d  %s wins %d, draws %d, %s wins %d%n", n, a.name, w, d, b.name, l));
+    if (n > 0) {
+      double score = (w + 0.5 * d) / n;
+      double variance = (w * Math.pow(1 - score, 2) + d * Math.pow(0.5 - score, 2) + l * Math.pow(score, 2)) / n;
+      double margin = 1.96 * Math.sqrt(variance / n);
+      double lo = elo(score - margin), hi = elo(score + margin);
+      double errorBar = (hi - lo) / 2;
+      sb.append(String.format("Score: %.1f%%  Elo difference (%s - %s): %s +/- %s (95%%)%n",
+          100 * score, a.name, b.name, eloString(elo(score)),
+          Double.isNaN(errorBar) || Double.isInfinite(errorBar) ? "inf" : String.format("%.1f", errorBar)));
+    }
+    for (Engine e : new Engine[]{a, b}) {
+      long moves = Math.max(1, e.moves.sum());
+      long nps = e.nanos.sum() == 0 ? 0 : e.nodes.sum() * 1_000_000_000L / e.nanos.sum();
+      sb.append(String.format("%s: %d nodes/s, %.1f ms/move, %d moves%n",
+          e.describe(), nps, e.nanos.sum() / 1e6 / moves, e.moves.sum()));
+    }
+    synchronized (endings) {
+      sb.append("Endings:");
+      endings.forEach((reason, count) -> sb.append(' ').append(reason).append('=').append(count.sum()));
+    }
+    return sb.append('\n').toString();
+  }
+
+  /** Elo difference for an expected score, infinite at 0 and 1. */
+  static double elo(double score) {
+    if (score <= 0) return Double.NEGATIVE_INFINITY;
+    if (score >= 1) return Double.POSITIVE_INFINITY;
+    return -400 * Math.log10(1 / score - 1);
+  }
+
+  private static String eloString(double elo) {
+    return Double.isInfinite(elo) ? (elo > 0 ? "+inf" : "-inf") : String.format("%+.1f", elo + 0.0);
+  }
+
+  public static void main(String[] args) throws Exception {
+    String specA = "", specB = "";
+    Path openingsFile = null, pgnFile = null;
+    int games = 100, threads = Runtime.getRuntime().availableProcessors();
+    int depth = SearchLimits.NO_DEPTH_LIMIT, hashMb = 16, maxPlies = 400;
+    long millis = SearchLimits.NO_LIMIT, nodes = SearchLimits.NO_LIMIT;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--a":         specA   = args[++i]; break;
+        case "--b":         specB   = args[++i]; break;
+        case "--openings":  openingsFile = Paths.get(args[++i]); break;
+        case "--pgn":       pgnFile = Paths.get(args[++i]); break;
+        case "--games":     games   = Integer.parseInt(args[++i]); break;
+        case "--threads":   threads = Integer.parseInt(args[++i]); break;
+        case "--depth":     depth   = Integer.parseInt(args[++i]); break;
+        case "--movetime":  millis  = Long.parseLong(args[++i]); break;
+        case "--nodes":     nodes   = Long.parseLong(args[++i]); break;
+        case "--hash":      hashMb  = Integer.parseInt(args[++i]); break;
+        case "--max-plies": maxPlies = Integer.parseInt(args[++i]); break;
+        default:
+          System.err.println("Unknown option: " + args[i]);
+          usage();
+          return;
+      }
+    }
+    if (depth == SearchLimits.NO_DEPTH_LIMIT && millis == SearchLimits.NO_LIMIT && nodes == SearchLimits.NO_LIMIT) {
+      depth = 3;
+    }
+    SearchLimits limits = new SearchLimits(depth, nodes, millis);
+
+    List<String> openings = new ArrayList<>();
+    if (openingsFile == null) {
+      openings.addAll(List.of(DEFAULT_OPENINGS));
+    } else {
+      try (EpdReader in = new EpdReader(Files.newBufferedReader(openingsFile, StandardCharsets.UTF_8))) {
+        EpdRecord rec;
+        while ((rec = in.next()) != null) {
+          try {
+            rec.toBoard();  // reject bad positions up front
+          } catch (IllegalArgumentException e) {
+            System.err.println("Skipping opening: " + e.getMessage());
+            continue;
+          }
+          openings.add(rec.fen);
+        }
+      }
+      if (openings.isEmpty()) throw new IOException("No positions in " + openingsFile);
+    }
+
+    SelfPlay match = new SelfPlay(new Engine("A", specA, hashMb), new Engine("B", specB, hashMb), limits, maxPlies);
+    System.err.printf("%d games, %d openings, %d threads, %s%n", games, openings.size(), threads, limits);
+    long start = System.nanoTime();
+    if (pgnFile == null) {
+      match.run(openings, games, threads, null);
+    } else {
+      try (PgnWriter pgn = new PgnWriter(Files.newBufferedWriter(pgnFile, StandardCharsets.UTF_8))) {
+        match.run(openings, games, threads, pgn);
+      }
+    }
+    System.out.print(match.report());
+    System.out.printf("Wall time %.1fs%n", (System.nanoTime() - start) / 1e9);
+  }
+
+  private static void usage() {
+    System.err.println("Usage: SelfPlay [--a SPEC] [--b SPEC] [--games N] [--threads N]"
+        + " [--depth D] [--movetime MS] [--nodes N] [--hash MB] [--max-plies N]"
+        + " [--openings FILE.epd] [--pgn FILE]");
+    System.err.println("SPEC: comma-separated pvs=, nullmove=, lmr=, futility= (true|false), eval=material|pst|pst:FILE|nnue:FILE");
+  }
+}
@@ -0,0 +1,224 @@
+package com.example.chess.tools;
+
+import com.example.chess.io.PgnGame;
+import com.example.chess.logic.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.server.MoveStream;
+import com.example.chess.server.MoveStreamHub;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Stand-in spectator for a {@link MoveStreamHub}: watches one game from
+ * any number of connections on a single selector. Each connection rebuilds
+ * the board from the moves and checks it at every checkpoint. Prints the
+ * bytes each connection received per move, next to what sending the FEN
+ * and the squares as JSON would have cost.
+ *
+ * With {@code --demo} it starts its own hub, plays one random game into it
+ * and checks every watcher ends on the right position.
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.tools.StreamWatch --port 7778 --game 1 --print
+ * java -cp target/classes com.example.chess.tools.StreamWatch --demo --clients 2000 --plies 300
+ * </pre>
+ */
+public class StreamWatch {
+  private StreamWatch() {}
+
+  /** One watching connection. */
+  private static final class Watcher implements MoveStream.Listener {
+    final SocketChannel channel;
+    final ByteBuffer in = ByteBuffer.allocate(4096);
+    final MoveStream.Reader reader = new MoveStream.Reader(this);
+    final boolean print;
+    long bytes;
+    int moves, checkpoints;
+    String result, error;
+
+    Watcher(SocketChannel channel, boolean print) {
+      this.channel = channel;
+      this.print = print;
+    }
+
+    @Override
+    public void checkpoint(int ply, Board board) {
+      checkpoints++;
+      if (print) System.out.println("checkpoint " + ply + " " + board.toFen());
+    }
+
+    @Override
+    public void move(Move m, Board board) {
+      moves++;
+      if (print) System.out.println(m);
+    }
+
+    @Override
+    public void end(String result) {
+      this.result = result;
+      if (print) System.out.println("end " + result);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    String host = "localhost";
+    int port = -1, clients = 1, plies = 200;
+    long game = 1, interval = 5;
+    boolean print = false, demo = false;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--host":     host     = args[++i]; break;
+        case "--port":     port     = Integer.parseInt(args[++i]); break;
+        case "--game":     game     = Long.parseLong(args[++i]); break;
+        case "--clients":  clients  = Integer.parseInt(args[++i]); break;
+        case "--print":    print    = true; break;
+        case "--demo":     demo     = true; break;
+        case "--plies":    plies    = Integer.parseInt(args[++i]); break;
+        case "--interval": interval = Long.parseLong(args[++i]); break;
+        default:
+          System.err.println("Unknown option: " + args[i]);
+          usage();
+          return;
+      }
+    }
+    if (demo == (port >= 0) || clients < 1) {
+      usage();
+      return;
+    }
+
+    MoveStreamHub hub = null;
+    Board played = null;
+    long[] jsonBytes = new long[1];
+    Thread publisher = null;
+    if (demo) {
+      hub = new MoveStreamHub(0);
+      port = hub.getLocalPort();
+      played = new Board();
+      hub.start(game, played);
+      publisher = demoGame(hub, game, played, clients, plies, interval, jsonBytes);
+    }
+
+    Selector selector = Selector.open();
+    List<Watcher> watchers = new ArrayList<>(clients);
+    ByteBuffer request = ByteBuffer.allocate(Long.BYTES).putLong(0, game);
+    for (int i = 0; i < clients; i++) {
+      SocketChannel ch = SocketChannel.open(new InetSocketAddress(host, port));
+      ch.write(request.duplicate());
+      ch.configureBlocking(false);
+      Watcher w = new Watcher(ch, print && i == 0);
+      ch.register(selector, SelectionKey.OP_READ, w);
+      watchers.add(w);
+    }
+    long start = System.nanoTime();
+    int open = clients;
+    while (open > 0) {
+      selector.select(1000);
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        Watcher w = (Watcher) key.attachment();
+        if (!read(w)) {
+          key.cancel();
+          w.channel.close();
+          open--;
+        }
+      }
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    if (publisher != null) publisher.join();
+    if (hub != null) hub.close();
+
+    long bytes = 0, moves = 0;
+    int failed = 0;
+    for (Watcher w : watchers) {
+      bytes += w.bytes;
+      moves += w.moves;
+      String failure = w.error != null ? w.error
+          : w.result == null ? "connection closed before the end"
+          : played != null && !sameFen(played, w.reader.getBoard()) ? "ended on " + w.reader.getBoard().toFen()
+          : null;
+      if (failure != null && failed++ < 5) System.err.println("watcher " + watchers.indexOf(w) + ": " + failure);
+    }
+    Watcher first = watchers.get(0);
+    System.err.printf("%d watchers, %d moves and %d checkpoints each, %d failed, %d ms%n",
+        clients, first.moves, first.checkpoints, failed, millis);
+    if (moves > 0) {
+      System.err.printf("%.2f bytes per move on the stream", bytes / (double) moves);
+      if (demo) System.err.printf(", %.2f as FEN and squares in JSON", jsonBytes[0] / (double) first.moves);
+      System.err.println();
+    }
+  }
+
+  /** Reads what has arrived; false once the connection is finished with. */
+  private static boolean read(Watcher w) {
+    try {
+      int n = w.channel.read(w.in);
+      if (n < 0) return false;
+      w.bytes += n;
+      w.in.flip();
+      w.reader.read(w.in);
+      w.in.compact();
+      return true;
+    } catch (IOException | RuntimeException e) {
+      w.error = e.toString();
+      return false;
+    }
+  }
+
+  /**
+   * Plays random legal moves into {@code hub} once every watcher is
+   * subscribed, totalling what the same moves would cost as JSON.
+   */
+  private static Thread demoGame(MoveStreamHub hub, long game, Board board, int clients,
+                                 int plies, long interval, long[] jsonBytes) {
+    Thread t = new Thread(() -> {
+      try {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (hub.getSubscribers() < clients && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        SplittableRandom rnd = new SplittableRandom(1);
+        String result = PgnGame.UNFINISHED;
+        for (int ply = 0; ply < plies; ply++) {
+          Color side = board.getSideToMove();
+          List<Move> legal = board.generateLegalMoves(side);
+          if (legal.isEmpty()) {
+            result = !board.isInCheck(side) ? PgnGame.DRAW : side == Color.WHITE ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS;
+            break;
+          }
+          Move m = legal.get(rnd.nextInt(legal.size()));
+          board.applyMove(m);
+          hub.move(game, m, board);
+          String s = m.toString();
+          jsonBytes[0] += ("{\"fen\":\"" + board.toFen() + " " + board.getHalfmoveClock() + " 1\",\"from\":\""
+              + s.substring(0, 2) + "\",\"to\":\"" + s.substring(2) + "\"}").getBytes(StandardCharsets.UTF_8).length;
+          if (interval > 0) Thread.sleep(interval);
+        }
+        hub.end(game, result);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, "demo-game");
+    t.start();
+    return t;
+  }
+
+  private static boolean sameFen(Board a, Board b) {
+    return b != null && a.toFen().equals(b.toFen());
+  }
+
+  private static void usage() {
+    System.err.println("Usage: StreamWatch (--port P [--host H] [--game ID] | --demo [--plies N] [--interval MS])"
+        + " [--clients N] [--print]");
+  }
+}
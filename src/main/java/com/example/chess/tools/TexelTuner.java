@@ -0,0 +1,402 @@
+package com.example.chess.tools;
+
+import com.example.chess.io.EpdReader;
+import com.example.chess.io.EpdRecord;
+import com.example.chess.io.PgnPositionSource;
+import com.example.chess.io.PgnReader;
+import com.example.chess.io.PositionSource;
+import com.example.chess.logic.Board;
+import com.example.chess.logic.EvalParams;
+import com.example.chess.logic.PieceSquareEvaluator;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fits the {@link EvalParams} of {@link PieceSquareEvaluator} to game
+ * results, Texel style. Each labelled position is resolved with a
+ * captures-only search, and the quiet position at the end of its principal
+ * variation is scored. The error is the mean squared difference between
+ * the result (1, 0.5 or 0 for White) and that score mapped to an expected
+ * result by {@code 1 / (1 + 10^(-K * score / 400))}. K is fitted to the
+ * starting parameters first unless it is given.
+ *
+ * Because the score is a weighted count of how often each parameter is
+ * used, the gradient of the error is exact and cheap. Every pass streams
+ * the whole input again, so memory does not grow with its size: positions
+ * go to a thread pool in batches, at most two batches per thread in flight,
+ * and each thread sums its own gradient. The parameters then take one Adam
+ * step and are written to the output after every pass, so a run can be
+ * stopped at any time. Load the result with -Dchess.eval.params=FILE.
+ *
+ * <p>Input is EPD or FEN lines with the result as a {@code c9} or
+ * {@code result} opcode ("1-0", "0-1", "1/2-1/2", or 1, 0.5, 0), or as a
+ * trailing "[1.0]"; or a PGN file (chosen by the ".pgn" extension), whose
+ * positions are labelled with their game's result. Unlabelled positions
+ * are skipped.
+ *
+ * <pre>
+ * java -cp target/classes com.example.chess.tools.TexelTuner \
+ *     --input quiet-labeled.epd --output tuned.params --passes 200
+ * </pre>
+ */
+public class TexelTuner {
+  private static final int MAX_PLY = 32;
+  /** Leaf scores are bucketed to the centipawn within this range to fit K. */
+  private static final int HISTOGRAM_RANGE = 4000;
+  private static final double BETA1 = 0.9, BETA2 = 0.999;
+
+  private final Path input;
+  private final int threads;
+  private final int batchSize;
+  private final double rate;
+  private final double[] weights;
+  private final double[] momentum = new double[EvalParams.COUNT];
+  private final double[] velocity = new double[EvalParams.COUNT];
+  private int steps;
+
+  public TexelTuner(Path input, EvalParams start, int threads, int batchSize, double rate) {
+    this.input = input;
+    this.threads = threads;
+    this.batchSize = batchSize;
+    this.rate = rate;
+    this.weights = new double[EvalParams.COUNT];
+    for (int i = 0; i < weights.length; i++) weights[i] = start.get(i);
+  }
+
+  /** The current parameters, rounded to whole centipawns. */
+  public EvalParams params() {
+    int[] v = new int[weights.length];
+    for (int i = 0; i < v.length; i++) v[i] = (int) Math.round(weights[i]);
+    return new EvalParams(v);
+  }
+
+  /** The K that best maps the current parameters' scores to the results. */
+  public double fitScale() throws IOException, InterruptedException {
+    Totals t = pass(1.0);
+    // The error is smooth and has one minimum in K; golden-section search it.
+    double lo = 0.05, hi = 5, g = (Math.sqrt(5) - 1) / 2;
+    double a = hi - g * (hi - lo), b = lo + g * (hi - lo);
+    double ea = t.error(a), eb = t.error(b);
+    for (int i = 0; i < 60; i++) {
+      if (ea < eb) {
+        hi = b; b = a; eb = ea;
+        a = hi - g * (hi - lo); ea = t.error(a);
+      } else {
+        lo = a; a = b; ea = eb;
+        b = lo + g * (hi - lo); eb = t.error(b);
+      }
+    }
+    return (lo + hi) / 2;
+  }
+
+  /** One pass over the input and one step; returns the error before the step. */
+  public Totals step(double k) throws IOException, InterruptedException {
+    Totals t = pass(k);
+    if (t.positions == 0) return t;
+    steps++;
+    double c1 = 1 - Math.pow(BETA1, steps), c2 = 1 - Math.pow(BETA2, steps);
+    for (int i = 0; i < weights.length; i++) {
+      double g = t.gradient[i] / t.positions;
+      momentum[i] = BETA1 * momentum[i] + (1 - BETA1) * g;
+      velocity[i] = BETA2 * velocity[i] + (1 - BETA2) * g * g;
+      weights[i] -= rate * (momentum[i] / c1) / (Math.sqrt(velocity[i] / c2) + 1e-12);
+    }
+    return t;
+  }
+
+  /** Streams the input once through the pool, scoring with the current parameters. */
+  private Totals pass(double k) throws IOException, InterruptedException {
+    PieceSquareEvaluator eval = new PieceSquareEvaluator(params());
+    List<Worker> workers = new CopyOnWriteArrayList<>();
+    ThreadLocal<Worker> local = ThreadLocal.withInitial(() -> {
+      Worker w = new Worker(eval, k);
+      workers.add(w);
+      return w;
+    });
+    AtomicInteger workerIds = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "tuner-" + workerIds.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    Semaphore inFlight = new Semaphore(threads * 2);
+    try (PositionSource source = open(input)) {
+      List<EpdRecord> batch = new ArrayList<>(batchSize);
+      EpdRecord rec;
+      do {
+        rec = source.next();
+        if (rec != null) batch.add(rec);
+        if (batch.size() == batchSize || (rec == null && !batch.isEmpty())) {
+          inFlight.acquire();
+          List<EpdRecord> work = batch;
+          pool.execute(() -> {
+            try {
+              Worker w = local.get();
+              for (EpdRecord position : work) w.add(position);
+            } finally {
+              inFlight.release();
+            }
+          });
+          batch = new ArrayList<>(batchSize);
+        }
+      } while (rec != null);
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+    Totals total = new Totals();
+    for (Worker w : workers) total.add(w.totals);
+    return total;
+  }
+
+  private static PositionSource open(Path file) throws IOException {
+    BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    return file.toString().toLowerCase().endsWith(".pgn")
+        ? new PgnPositionSource(new PgnReader(reader))
+        : new EpdReader(reader);
+  }
+
+  /** White's result from the record's label, or NaN if it has none. */
+  static double result(EpdRecord rec) {
+    String r = rec.operations.get("c9");
+    if (r == null) r = rec.operations.get("result");
+    if (r == null) {
+      for (String op : rec.operations.keySet()) {
+        if (op.startsWith("[") && op.endsWith("]")) r = op;
+      }
+    }
+    if (r == null) return Double.NaN;
+    if (r.startsWith("[") && r.endsWith("]")) r = r.substring(1, r.length() - 1);
+    switch (r) {
+      case "1-0": return 1;
+      case "0-1": return 0;
+      case "1/2-1/2": return 0.5;
+      default:
+        try {
+          double v = Double.parseDouble(r);
+          return v == 0 || v == 0.5 || v == 1 ? v : Double.NaN;
+        } catch (NumberFormatException e) {
+          return Double.NaN;
+        }
+    }
+  }
+
+  static double sigmoid(double k, double score) {
+    return 1 / (1 + Math.pow(10, -k * score / 400));
+  }
+
+  /** Sums over the positions of one pass. */
+  public static final class Totals {
+    long positions, skipped;
+    final double[] gradient = new double[EvalParams.COUNT];
+    // Per centipawn of leaf score: positions, sum of results, sum of squared results.
+    final long[] count = new long[2 * HISTOGRAM_RANGE + 1];
+    final double[] sum = new double[2 * HISTOGRAM_RANGE + 1];
+    final double[] sumSquares = new double[2 * HISTOGRAM_RANGE + 1];
+
+    void add(Totals o) {
+      positions += o.positions;
+      skipped += o.skipped;
+      for (int i = 0; i < gradient.length; i++) gradient[i] += o.gradient[i];
+      for (int i = 0; i < count.length; i++) {
+        count[i] += o.count[i];
+        sum[i] += o.sum[i];
+        sumSquares[i] += o.sumSquares[i];
+      }
+    }
+
+    /** Mean squared error of the pass's scores for scale {@code k}. */
+    public double error(double k) {
+      if (positions == 0) return 0;
+      double e = 0;
+      for (int i = 0; i < count.length; i++) {
+        if (count[i] == 0) continue;
+        double s = sigmoid(k, i - HISTOGRAM_RANGE);
+        e += count[i] * s * s - 2 * s * sum[i] + sumSquares[i];
+      }
+      return e / positions;
+    }
+
+    public long positions() { return positions; }
+
+    public long skipped() { return skipped; }
+  }
+
+  /** One pool thread's search state and sums. */
+  private static final class Worker {
+    final PieceSquareEvaluator eval;
+    final double k;
+    final Totals totals = new Totals();
+    final int[] counts = new int[EvalParams.COUNT];
+    final Move[][] pv = new Move[MAX_PLY][MAX_PLY];
+    final int[] pvLength = new int[MAX_PLY];
+
+    Worker(PieceSquareEvaluator eval, double k) {
+      this.eval = eval;
+      this.k = k;
+    }
+
+    void add(EpdRecord rec) {
+      double result = result(rec);
+      Board b;
+      try {
+        b = Double.isNaN(result) ? null : rec.toBoard();
+      } catch (IllegalArgumentException e) {
+        b = null;
+      }
+      if (b == null) {
+        totals.skipped++;
+        return;
+      }
+      quiesce(b, b.getSideToMove(), 0, -1_000_000, 1_000_000);
+      int n = pvLength[0];
+      for (int i = 0; i < n; i++) b.applyMove(pv[0][i]);
+      Arrays.fill(counts, 0);
+      int score = eval.trace(b, counts);
+      for (int i = 0; i < n; i++) b.undoMove();
+
+      double s = sigmoid(k, score);
+      // d(error)/d(score), without the constant factor Adam does not care about
+      double slope = (s - result) * s * (1 - s);
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] != 0) totals.gradient[i] += slope * counts[i];
+      }
+      int bucket = Math.max(-HISTOGRAM_RANGE, Math.min(HISTOGRAM_RANGE, score)) + HISTOGRAM_RANGE;
+      totals.count[bucket]++;
+      totals.sum[bucket] += result;
+      totals.sumSquares[bucket] += result * result;
+      totals.positions++;
+    }
+
+    /** Captures-only search like the engine's; leaves its principal variation in pv[0]. */
+    int quiesce(Board b, Color side, int ply, int alpha, int beta) {
+      pvLength[ply] = 0;
+      int standPat = eval.evaluate(b, side);
+      if (standPat >= beta) return standPat;
+      if (standPat > alpha) alpha = standPat;
+      if (ply == MAX_PLY - 1) return standPat;
+
+      List<Move> moves = b.generateLegalMoves(side);
+      moves.removeIf(m -> isQuiet(b, m));
+      moves.sort(Comparator.comparingInt((Move m) -> victim(b, m)).reversed());
+      Color other = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+      for (Move m : moves) {
+        b.applyMove(m);
+        int score = -quiesce(b, other, ply + 1, -beta, -alpha);
+        b.undoMove();
+        if (score >= beta) return score;
+        if (score > alpha) {
+          alpha = score;
+          pv[ply][0] = m;
+          System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+          pvLength[ply] = pvLength[ply + 1] + 1;
+        }
+      }
+      return alpha;
+    }
+
+    /** Captured piece's value; en passant and quiet promotions count as a pawn. */
+    private int victim(Board b, Move m) {
+      Piece p = b.getPiece(m.toRow, m.toCol);
+      return p == null ? eval.getParams().get(EvalParams.value(PieceType.PAWN))
+          : eval.getParams().get(EvalParams.value(p.getType()));
+    }
+
+    private static boolean isQuiet(Board b, Move m) {
+      if (m.promotion != null || b.getPiece(m.toRow, m.toCol) != null) return false;
+      Piece p = b.getPiece(m.fromRow, m.fromCol);
+      return p.getType() != PieceType.PAWN || m.fromCol == m.toCol;
+    }
+  }
+
+  /** Writes to a temporary file first so an interrupted run never leaves half a file. */
+  private static void save(EvalParams params, Path output) throws IOException {
+    Path tmp = output.resolveSibling(output.getFileName() + ".tmp");
+    try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+      params.writeTo(out);
+    }
+    Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path input = null, output = null, start = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int passes = 100;
+    int batchSize = 1024;
+    double rate = 1.0;
+    double k = Double.NaN;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--input":   input     = Paths.get(args[++i]); break;
+        case "--output":  output    = Paths.get(args[++i]); break;
+        case "--params":  start     = Paths.get(args[++i]); break;
+        case "--threads": threads   = Integer.parseInt(args[++i]); break;
+        case "--passes":  passes    = Integer.parseInt(args[++i]); break;
+        case "--batch":   batchSize = Integer.parseInt(args[++i]); break;
+        case "--rate":    rate      = Double.parseDouble(args[++i]); break;
+        case "--k":       k         = Double.parseDouble(args[++i]); break;
+        default:
+          System.err.println("Unknown option: " + args[i]);
+          usage();
+          return;
+      }
+    }
+    if (input == null || output == null) {
+      usage();
+      return;
+    }
+    TexelTuner tuner = new TexelTuner(input, start == null ? EvalParams.DEFAULTS : EvalParams.load(start),
+        threads, batchSize, rate);
+    if (Double.isNaN(k)) {
+      long t0 = System.nanoTime();
+      k = tuner.fitScale();
+      System.err.printf("K = %.4f (%.1fs)%n", k, (System.nanoTime() - t0) / 1e9);
+    }
+    for (int pass = 1; pass <= passes; pass++) {
+      long t0 = System.nanoTime();
+      Totals t = tuner.step(k);
+      if (t.positions() == 0) {
+        System.err.println("No labelled positions in " + input + " (" + t.skipped() + " skipped)");
+        return;
+      }
+      save(tuner.params(), output);
+      double secs = (System.nanoTime() - t0) / 1e9;
+      System.err.printf("pass %d: error %.6f, %d positions (%d skipped), %.0f/s%n",
+          pass, t.error(k), t.positions(), t.skipped(), t.positions() / secs);
+    }
+    EvalParams tuned = tuner.params();
+    StringBuilder values = new StringBuilder("Values:");
+    for (PieceType type : PieceType.values()) {
+      if (type == PieceType.KING) continue;
+      values.append(' ').append(type.name().toLowerCase()).append('=').append(tuned.get(EvalParams.value(type)));
+    }
+    System.out.println(values);
+    System.out.println("Wrote " + output);
+  }
+
+  private static void usage() {
+    System.err.println("Usage: TexelTuner --input FILE.epd|FILE.pgn --output FILE.params"
+        + " [--params START] [--threads N] [--passes N] [--batch N] [--rate CP] [--k K]");
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.chess.ui;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+
+import javafx.scene.Node;
+
+/**
+ * Draws the board for {@link ChessBoardUI} and reports clicks on squares.
+ * -Dchess.ui.renderer=canvas picks {@link CanvasBoardView}; the default is
+ * {@link GridBoardView}, one node per square.
+ */
+interface BoardView {
+  /** Receives clicks as board rows and columns, row 0 being the eighth rank. */
+  interface SquareListener {
+    void clicked(int row, int col);
+  }
+
+  Node getNode();
+
+  void setOnSquareClicked(SquareListener listener);
+
+  /**
+   * Shows {@code board} with the selected square (row -1 for none), the
+   * selected piece's destinations from {@code legal}, and {@code hint}
+   * (may be null) outlined.
+   */
+  void show(Board board, int selRow, int selCol, LegalMoves legal, Move hint);
+
+  /**
+   * Moves the piece of {@code m} from its square to its destination, then
+   * runs {@code done} on the FX thread. The caller shows the new position
+   * from {@code done}.
+   */
+  void animate(Move m, Runnable done);
+
+  /** True while {@link #animate} is running; clicks should wait. */
+  boolean isAnimating();
+
+  static BoardView fromSystemProperties() {
+    return "canvas".equals(System.getProperty("chess.ui.renderer")) ? new CanvasBoardView() : new GridBoardView();
+  }
+}
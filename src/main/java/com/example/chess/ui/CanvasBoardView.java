@@ -0,0 +1,200 @@
+package com.example.chess.ui;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Paint;
+
+import java.util.Arrays;
+
+/**
+ * The whole board on one {@link Canvas}, with pieces drawn from the shared
+ * {@link SpriteAtlas}. It remembers what each square shows, so a change of
+ * position or selection repaints only the squares that differ. The board
+ * scales to fit its pane, and a resize is a single repaint. Moves slide
+ * across the board; each frame repaints only the squares under the piece.
+ */
+final class CanvasBoardView implements BoardView {
+  private static final long ANIMATION_NANOS = 180_000_000L;
+  private static final Paint LIGHT = Paint.valueOf("#EEEED2");
+  private static final Paint DARK = Paint.valueOf("#769656");
+  private static final Paint SELECTED = Paint.valueOf("red");
+  private static final Paint HINT = Paint.valueOf("blue");
+  private static final Paint TARGET = Paint.valueOf("#00000040");
+
+  // What each square shows: sprite number (-1 for empty) and overlay.
+  private static final byte MARK_SELECTED = 1, MARK_HINT = 2, MARK_TARGET = 4;
+  private final int[] sprites = new int[64];
+  private final byte[] marks = new byte[64];
+
+  private final Pane pane = new Pane();
+  private final Canvas canvas = new Canvas();
+  private final SpriteAtlas atlas = SpriteAtlas.get();
+  private SquareListener listener = (r, c) -> {};
+  private double square;
+  private AnimationTimer animation;
+  /** From {@link #animate} until its callback runs, so no click sees the old position. */
+  private boolean animating;
+
+  CanvasBoardView() {
+    Arrays.fill(sprites, -1);
+    pane.getChildren().add(canvas);
+    pane.setPrefSize(8 * 60, 8 * 60);
+    pane.setMinSize(8 * 20, 8 * 20);
+    pane.widthProperty().addListener((obs, old, now) -> resize());
+    pane.heightProperty().addListener((obs, old, now) -> resize());
+    canvas.setOnMouseClicked(e -> {
+      if (square <= 0) return;
+      int r = (int) (e.getY() / square), c = (int) (e.getX() / square);
+      if (r >= 0 && r < 8 && c >= 0 && c < 8) listener.clicked(r, c);
+    });
+  }
+
+  @Override
+  public Node getNode() { return pane; }
+
+  @Override
+  public void setOnSquareClicked(SquareListener listener) { this.listener = listener; }
+
+  @Override
+  public void show(Board board, int selRow, int selCol, LegalMoves legal, Move hint) {
+    if (animation != null) {
+      animation.stop();
+      animation = null;
+      animating = false;
+      paintAll();
+    }
+    for (int sq = 0; sq < 64; sq++) {
+      int r = sq >> 3, c = sq & 7;
+      Piece p = board.getPiece(r, c);
+      int sprite = p == null ? -1 : SpriteAtlas.index(p);
+      byte mark = 0;
+      if (r == selRow && c == selCol) mark |= MARK_SELECTED;
+      else if (hint != null && (r == hint.fromRow && c == hint.fromCol || r == hint.toRow && c == hint.toCol)) {
+        mark |= MARK_HINT;
+      }
+      if (selRow >= 0 && legal.isTarget(selRow, selCol, r, c)) mark |= MARK_TARGET;
+      if (sprite != sprites[sq] || mark != marks[sq]) {
+        sprites[sq] = sprite;
+        marks[sq] = mark;
+        paint(sq);
+      }
+    }
+  }
+
+  @Override
+  public void animate(Move m, Runnable done) {
+    int from = m.fromRow * 8 + m.fromCol, to = m.toRow * 8 + m.toCol;
+    int sprite = sprites[from];
+    animating = true;
+    if (sprite < 0 || square <= 0) {
+      finish(done);
+      return;
+    }
+    sprites[from] = -1;
+    paint(from);
+    for (int sq = 0; sq < 64; sq++) {
+      if (marks[sq] != 0) {
+        marks[sq] = 0;
+        paint(sq);
+      }
+    }
+    animation = new AnimationTimer() {
+      private long start = -1;
+      private double x = m.fromCol * square, y = m.fromRow * square;
+
+      @Override
+      public void handle(long now) {
+        if (start < 0) start = now;
+        double t = Math.min(1, (now - start) / (double) ANIMATION_NANOS);
+        double eased = t * t * (3 - 2 * t);
+        repaintUnder(x, y);
+        x = (m.fromCol + (m.toCol - m.fromCol) * eased) * square;
+        y = (m.fromRow + (m.toRow - m.fromRow) * eased) * square;
+        if (t < 1) {
+          drawSprite(sprite, x, y);
+          return;
+        }
+        stop();
+        animation = null;
+        sprites[to] = sprite;
+        paint(to);
+        // after this frame is on screen, so a slow reply does not hide it
+        finish(done);
+      }
+    };
+    animation.start();
+  }
+
+  // Runs done on a later pulse; clicks keep waiting until it has shown the new position.
+  private void finish(Runnable done) {
+    Platform.runLater(() -> {
+      animating = false;
+      done.run();
+    });
+  }
+
+  @Override
+  public boolean isAnimating() { return animating; }
+
+  private void resize() {
+    double size = Math.floor(Math.min(pane.getWidth(), pane.getHeight()) / 8);
+    if (size == square) return;
+    square = size;
+    canvas.setWidth(8 * size);
+    canvas.setHeight(8 * size);
+    canvas.relocate((pane.getWidth() - 8 * size) / 2, (pane.getHeight() - 8 * size) / 2);
+    paintAll();
+  }
+
+  private void paintAll() {
+    for (int sq = 0; sq < 64; sq++) paint(sq);
+  }
+
+  /** Repaints the (up to four) squares a sprite at (x, y) overlaps. */
+  private void repaintUnder(double x, double y) {
+    int c0 = (int) (x / square), r0 = (int) (y / square);
+    int c1 = Math.min(7, (int) ((x + square - 1) / square)), r1 = Math.min(7, (int) ((y + square - 1) / square));
+    for (int r = r0; r <= r1; r++) {
+      for (int c = c0; c <= c1; c++) paint(r * 8 + c);
+    }
+  }
+
+  private void paint(int sq) {
+    if (square <= 0) return;
+    GraphicsContext g = canvas.getGraphicsContext2D();
+    int r = sq >> 3, c = sq & 7;
+    double x = c * square, y = r * square;
+    g.setFill((r + c) % 2 == 0 ? LIGHT : DARK);
+    g.fillRect(x, y, square, square);
+    byte mark = marks[sq];
+    if ((mark & (MARK_SELECTED | MARK_HINT)) != 0) {
+      double w = Math.max(2, square / 20);
+      g.setStroke((mark & MARK_SELECTED) != 0 ? SELECTED : HINT);
+      g.setLineWidth(w);
+      g.strokeRect(x + w / 2, y + w / 2, square - w, square - w);
+    }
+    if ((mark & MARK_TARGET) != 0) {
+      double d = square * 0.3;
+      g.setFill(TARGET);
+      g.fillOval(x + (square - d) / 2, y + (square - d) / 2, d, d);
+    }
+    if (sprites[sq] >= 0) drawSprite(sprites[sq], x, y);
+  }
+
+  private void drawSprite(int sprite, double x, double y) {
+    Rectangle2D v = atlas.viewport(sprite);
+    double inset = square / 12;
+    canvas.getGraphicsContext2D().drawImage(atlas.getImage(),
+        v.getMinX(), v.getMinY(), v.getWidth(), v.getHeight(),
+        x + inset, y + inset, square - 2 * inset, square - 2 * inset);
+  }
+}
@@ -1,9 +1,17 @@
 package com.example.chess.ui;
 
+import com.example.chess.io.GameJournal;
+import com.example.chess.io.PgnGame;
+import com.example.chess.io.PgnWriter;
 import com.example.chess.logic.Board;
 import com.example.chess.logic.AI;
+import com.example.chess.logic.AnalysisCache;
+import com.example.chess.logic.EnginePool;
+import com.example.chess.logic.SearchResult;
+import com.example.chess.logic.SkillLevel;
 import com.example.chess.model.Move;
 import com.example.chess.model.Color;
+import com.example.chess.model.PieceType;
 
 import javafx.application.Platform;
 import javafx.geometry.Pos;
@@ -11,156 +19,343 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.GridPane;
-import javafx.scene.layout.StackPane;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.Alert;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Paint;
-import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 public class ChessBoardUI {
+  /** Shared by every game window, so "Play Again" reuses the same tables. */
+  private static final EnginePool ENGINES =
+      new EnginePool(new AI(), 1, 32, EnginePool.TableMode.SHARED);
+
+  /** Writes to the journal; failures are reported but never stop the game. */
+  private interface JournalWrite {
+    void write(GameJournal journal) throws IOException;
+  }
+
   private final Stage stage;
   private final String playerName;
+  private final SkillLevel level;
+  /** The unfinished game this window continues, or null for a new game. */
+  private final GameJournal.Game resumed;
+  private long gameId;
   private Board board;
-  private AI ai;
-  private final GridPane grid = new GridPane();
+  private final BoardView view = BoardView.fromSystemProperties();
   private int selRow = -1, selCol = -1;
   private boolean gameOver = false;
-  private final Map<String, Image> cache = new HashMap<>();
+  /** The side to move's legal moves, rebuilt whenever the position changes. */
+  private LegalMoves legal;
+  private PgnGame record;
+  /** Every search this game has run, so hints and replies after an undo are instant. */
+  private final AnalysisCache analysis = new AnalysisCache();
+  private Move hint;
 
   public ChessBoardUI(Stage stage, String playerName) {
+    this(stage, playerName, SkillLevel.FULL);
+  }
+
+  public ChessBoardUI(Stage stage, String playerName, SkillLevel level) {
+    this(stage, playerName, level, null);
+  }
+
+  /** Continues a game recovered from the {@link #journal()}. */
+  public ChessBoardUI(Stage stage, GameJournal.Game resumed) {
+    this(stage, playerOf(resumed), levelOf(resumed), resumed);
+  }
+
+  private ChessBoardUI(Stage stage, String playerName, SkillLevel level, GameJournal.Game resumed) {
     this.stage = stage;
     this.playerName = playerName;
+    this.level = level;
+    this.resumed = resumed;
+  }
+
+  /**
+   * The journal of games in progress, at {@code -Dchess.journal} or
+   * ~/.chess-ai/games.journal. Null if it cannot be opened, for example
+   * because another instance or the server has it, in which case games are
+   * simply not journaled.
+   */
+  public static GameJournal journal() {
+    return JournalHolder.JOURNAL;
+  }
+
+  private static final class JournalHolder {
+    static final GameJournal JOURNAL = open();
+
+    private static GameJournal open() {
+      String configured = System.getProperty("chess.journal");
+      Path file = configured != null
+          ? Paths.get(configured)
+          : Paths.get(System.getProperty("user.home"), ".chess-ai", "games.journal");
+      try {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        return new GameJournal(file);
+      } catch (IOException | RuntimeException e) {
+        System.err.println("Game journal disabled: " + e);
+        return null;
+      }
+    }
+  }
+
+  private static SkillLevel levelOf(GameJournal.Game g) {
+    return g.level() != null ? g.level() : SkillLevel.FULL;
+  }
+
+  private static String playerOf(GameJournal.Game g) {
+    return g.player().isEmpty() ? "Player" : g.player();
   }
 
   /** Initialize new game state and draw first board. */
   public Parent getRoot() {
-    board    = new Board();
-    ai       = new AI();
+    board    = resumed == null ? new Board() : new Board(resumed.board);
     selRow   = selCol = -1;
     gameOver = false;
+    hint     = null;
+    analysis.clear();
+    record   = new PgnGame();
+    record.setTag("Event", "Chess AI Platform");
+    record.setTag("Site", "?");
+    record.setTag("Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+    record.setTag("Round", "-");
+    record.setTag("White", playerName);
+    record.setTag("Black", "Computer (" + level + ")");
+    if (resumed != null) {
+      record.setTag("SetUp", "1");
+      record.setTag("FEN", board.toFen() + " " + board.getHalfmoveClock() + " 1");
+      gameId = resumed.id;
+    } else {
+      GameJournal journal = journal();
+      gameId = journal == null ? 0 : journal.newGameId();
+      journal(j -> j.start(gameId, board, GameJournal.info(Color.WHITE, level, playerName)));
+    }
+    legal    = new LegalMoves(board, board.getSideToMove());
     draw();
-    return grid;
+    if (resumed != null) {
+      // the game may have stopped while the computer was thinking, or just before it ended
+      Platform.runLater(() -> {
+        if (!checkGameEnd() && board.getSideToMove() == Color.BLACK) reply();
+      });
+    }
+
+    Button hintButton = new Button("Hint");
+    hintButton.setOnAction(e -> showHint());
+    Button undoButton = new Button("Undo");
+    undoButton.setOnAction(e -> undo());
+    HBox controls = new HBox(10, hintButton, undoButton);
+    controls.setAlignment(Pos.CENTER);
+    controls.setStyle("-fx-padding: 8;");
+
+    view.setOnSquareClicked(this::handleClick);
+    BorderPane root = new BorderPane(view.getNode());
+    root.setBottom(controls);
+    return root;
   }
 
-  /** Draws the 8×8 board with pieces and highlights. */
+  /** Shows the position, selection, legal targets and hint. */
   private void draw() {
-    grid.getChildren().clear();
-    for (int r = 0; r < 8; r++) {
-      for (int c = 0; c < 8; c++) {
-        StackPane cell = new StackPane();
-        boolean light = (r + c) % 2 == 0;
-        Rectangle bg = new Rectangle(60, 60,
-            Paint.valueOf(light ? "#EEEED2" : "#769656"));
-
-        // highlight selected square
-        if (r == selRow && c == selCol) {
-          bg.setStroke(Paint.valueOf("red"));
-          bg.setStrokeWidth(3);
-        }
-
-        cell.getChildren().add(bg);
-
-        var p = board.getPiece(r, c);
-        if (p != null) {
-          String key = (p.getColor() == Color.WHITE ? "white_" : "black_")
-                       + p.getType().name().toLowerCase() + ".png";
-          Image img = cache.computeIfAbsent(key,
-              k -> new Image(getClass().getResourceAsStream("/images/" + k)));
-          ImageView iv = new ImageView(img);
-          iv.setFitWidth(50);
-          iv.setFitHeight(50);
-          cell.getChildren().add(iv);
-        }
-
-        final int rr = r, cc = c;
-        cell.setOnMouseClicked(e -> handleClick(rr, cc));
-        grid.add(cell, c, r);
-      }
-    }
-    grid.setAlignment(Pos.CENTER);
+    view.show(board, selRow, selCol, legal, hint);
   }
 
   /** Handle a click at (r,c): select/move or ignore if game over. */
   private void handleClick(int r, int c) {
-    if (gameOver) return;
-
-    // 1) First click: select piece
-    if (selRow < 0) {
-      if (board.getPiece(r, c) != null) {
-        selRow = r;
-        selCol = c;
-        draw();
-      }
+    if (gameOver || view.isAnimating()) return;
+    hint = null;
+
+    // 1) First click, or another of our pieces: select it if it can move
+    if (selRow < 0 || !legal.isTarget(selRow, selCol, r, c)) {
+      boolean select = legal.canMove(r, c) && !(r == selRow && c == selCol);
+      selRow = select ? r : -1;
+      selCol = select ? c : -1;
+      draw();
       return;
     }
 
-    // 2) Second click: attempt move
-    Move humanMove = new Move(selRow, selCol, r, c);
-    if (board.isLegal(humanMove)) {
-      board.applyMove(humanMove);
-      draw();
+    // 2) Second click on a legal target: pick the move (with promotion dialog if needed)
+    Move humanMove;
+    if (legal.isPromotion(selRow, selCol, r, c)) {
+      ChoiceDialog<PieceType> dlg = new ChoiceDialog<>(
+          PieceType.QUEEN,
+          PieceType.QUEEN, PieceType.ROOK,
+          PieceType.BISHOP, PieceType.KNIGHT
+      );
+      dlg.setTitle("Pawn Promotion");
+      dlg.setHeaderText("Your pawn has reached the last rank!");
+      dlg.setContentText("Choose a piece to promote to:");
+      PieceType choice = dlg.showAndWait().orElse(PieceType.QUEEN);
+      humanMove = legal.find(selRow, selCol, r, c, choice);
+    } else {
+      humanMove = legal.find(selRow, selCol, r, c, null);
+    }
 
-      // Check if opponent (Black) is checkmated
-      if (isCheckmate(Color.BLACK)) {
-        gameOver = true;
-        showGameOver(playerName);
-        return;
-      }
+    // 3) Play it, then answer once it has been shown
+    board.applyMove(humanMove);
+    record.addMove(humanMove);
+    journal(j -> j.move(gameId, humanMove, board));
+    legal = new LegalMoves(board, board.getSideToMove());
+    selRow = selCol = -1;
+    view.animate(humanMove, () -> {
+      draw();
+      // checkmate, stalemate or a draw by rule?
+      if (!checkGameEnd()) reply();
+    });
+  }
 
-      // AI's turn
-      Move aiMove = ai.nextMove(board);
-      board.applyMove(aiMove);
+  /** Searches and plays the computer's move. */
+  private void reply() {
+    Move aiMove;
+    try (EnginePool.Lease engine = ENGINES.checkout(this)) {
+      // Weaker levels choose at random, so only full strength replays cached answers.
+      aiMove = level == SkillLevel.FULL
+          ? engine.search(board, Color.BLACK, analysis).move
+          : engine.search(board, Color.BLACK, level).move;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    board.applyMove(aiMove);
+    record.addMove(aiMove);
+    journal(j -> j.move(gameId, aiMove, board));
+    legal = new LegalMoves(board, board.getSideToMove());
+    view.animate(aiMove, () -> {
       draw();
+      checkGameEnd();
+    });
+  }
 
-      // Check if human (White) is checkmated
-      if (isCheckmate(Color.WHITE)) {
-        gameOver = true;
-        showGameOver("Computer");
+  /** Outlines the engine's choice for White, searching only if this position is new. */
+  private void showHint() {
+    if (gameOver || view.isAnimating()) return;
+    SearchResult known = analysis.get(board, Color.WHITE);
+    if (known == null) {
+      try (EnginePool.Lease engine = ENGINES.checkout(this)) {
+        known = engine.search(board, Color.WHITE, analysis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
         return;
       }
     }
+    hint = known.move;
+    selRow = selCol = -1;
+    draw();
+  }
 
-    // Clear selection on illegal or after attempt
+  /**
+   * Takes back the player's last move and any computer reply to it. A resumed
+   * game may start with the computer to move, so the moves are replayed to see
+   * who played each one rather than counting them.
+   */
+  private void undo() {
+    if (gameOver || view.isAnimating()) return;
+    List<Move> played = record.getMoves();
+    Board replay = record.startingBoard();
+    int lastHuman = -1;
+    for (int i = 0; i < played.size(); i++) {
+      if (replay.getSideToMove() == Color.WHITE) lastHuman = i;
+      replay.applyMove(played.get(i));
+    }
+    if (lastHuman < 0) return;
+    while (record.getMoves().size() > lastHuman) record.removeLastMove();
+    board = record.startingBoard();
+    for (Move m : record.getMoves()) board.applyMove(m);
+    legal = new LegalMoves(board, board.getSideToMove());
+    journal(j -> j.snapshot(gameId, board));
     selRow = selCol = -1;
+    hint = null;
     draw();
   }
 
-  /** True if 'color' is in check AND has no legal moves left. */
-  private boolean isCheckmate(Color color) {
-    return board.isInCheck(color) &&
-           board.generateLegalMoves(color).isEmpty();
+  /** Ends the game if the side to move is mated or stalemated, or a draw rule applies. */
+  private boolean checkGameEnd() {
+    Color side = board.getSideToMove();
+    String result, message;
+    if (legal.isEmpty()) {
+      if (board.isInCheck(side)) {
+        result  = side == Color.BLACK ? PgnGame.WHITE_WINS : PgnGame.BLACK_WINS;
+        message = "Congratulations, " + (side == Color.BLACK ? playerName : "Computer") + "!";
+      } else {
+        result  = PgnGame.DRAW;
+        message = "Draw by stalemate.";
+      }
+    } else if (board.isThreefoldRepetition()) {
+      result  = PgnGame.DRAW;
+      message = "Draw by threefold repetition.";
+    } else if (board.isFiftyMoveDraw()) {
+      result  = PgnGame.DRAW;
+      message = "Draw by the fifty-move rule.";
+    } else {
+      return false;
+    }
+    gameOver = true;
+    record.setResult(result);
+    journal(j -> j.end(gameId));
+    showGameOver(message);
+    return true;
   }
 
-  /**
-   * Display end‐of‐game screen: Congratulations + Play Again + Exit.
-   */
-  private void showGameOver(String winner) {
-    Label msg = new Label("Congratulations, " + winner + "!");
+  private void journal(JournalWrite write) {
+    GameJournal journal = journal();
+    if (journal == null) return;
+    try {
+      write.write(journal);
+    } catch (IOException e) {
+      System.err.println("Could not journal game " + gameId + ": " + e);
+    }
+  }
+
+  private void showGameOver(String message) {
+    Label msg = new Label(message);
     msg.setStyle("-fx-font-size: 24px; -fx-font-weight: bold;");
 
     Button playAgain = new Button("Play Again");
     playAgain.setOnAction(e -> {
-      ChessBoardUI fresh = new ChessBoardUI(stage, playerName);
+      ChessBoardUI fresh = new ChessBoardUI(stage, playerName, level);
       Scene scene = new Scene(fresh.getRoot());
       stage.setScene(scene);
       stage.setTitle("Chess AI Platform");
     });
 
+    Button save = new Button("Save Game (PGN)");
+    save.setOnAction(e -> saveGame());
+
     Button exit = new Button("Exit");
     exit.setOnAction(e -> Platform.exit());
 
-    VBox root = new VBox(20, msg, playAgain, exit);
+    VBox root = new VBox(20, msg, playAgain, save, exit);
     root.setAlignment(Pos.CENTER);
     root.setStyle("-fx-padding: 20;");
 
-    Scene scene = new Scene(root, 400, 200);
+    Scene scene = new Scene(root, 400, 260);
     stage.setScene(scene);
     stage.setTitle("Game Over");
   }
+
+  /** Ask for a file and write the finished game to it as PGN. */
+  private void saveGame() {
+    FileChooser chooser = new FileChooser();
+    chooser.setTitle("Save Game");
+    chooser.setInitialFileName("game.pgn");
+    chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PGN files", "*.pgn"));
+    File file = chooser.showSaveDialog(stage);
+    if (file == null) return;
+    try (PgnWriter out = new PgnWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+      out.write(record);
+    } catch (IOException ex) {
+      new Alert(Alert.AlertType.ERROR, "Could not save game: " + ex.getMessage()).showAndWait();
+    }
+  }
 }
@@ -1,9 +1,17 @@
 package com.example.chess.ui;
 
+import com.example.chess.io.GameJournal;
+import com.example.chess.logic.SkillLevel;
+import com.example.chess.model.Color;
+
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.TextInputDialog;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.util.Optional;
 
 public class ChessUI {
@@ -14,6 +22,21 @@ public class ChessUI {
   }
 
   public void show() {
+    // 0) Offer to continue the last game left unfinished
+    GameJournal.Game unfinished = lastUnfinishedGame();
+    if (unfinished != null) {
+      Alert ask = new Alert(Alert.AlertType.CONFIRMATION,
+          "Your last game was not finished. Continue it?",
+          ButtonType.YES, ButtonType.NO);
+      ask.setTitle("Resume Game");
+      ask.setHeaderText(null);
+      if (ask.showAndWait().orElse(ButtonType.NO) == ButtonType.YES) {
+        showBoard(new ChessBoardUI(stage, unfinished));
+        return;
+      }
+      endGame(unfinished.id);
+    }
+
     // 1) Ask for player name
     TextInputDialog dialog = new TextInputDialog("Player");
     dialog.setTitle("Player Name");
@@ -22,11 +45,47 @@ public class ChessUI {
     Optional<String> result = dialog.showAndWait();
     String playerName = result.orElse("Player");
 
-    // 2) Create the board UI with the player name
-    ChessBoardUI boardUI = new ChessBoardUI(stage, playerName);
+    // 2) Ask for the computer's strength
+    ChoiceDialog<SkillLevel> levels = new ChoiceDialog<>(SkillLevel.FULL, SkillLevel.values());
+    levels.setTitle("Difficulty");
+    levels.setHeaderText("How strong should the computer play?");
+    levels.setContentText("Level:");
+    SkillLevel level = levels.showAndWait().orElse(SkillLevel.FULL);
+
+    // 3) Create the board UI with the player name
+    showBoard(new ChessBoardUI(stage, playerName, level));
+  }
+
+  private void showBoard(ChessBoardUI boardUI) {
     Scene scene = new Scene(boardUI.getRoot());
     stage.setTitle("Chess AI Platform");
     stage.setScene(scene);
     stage.show();
   }
+
+  /**
+   * The most recent game in the journal the player can continue as White,
+   * after retiring any older ones so they do not pile up. Games where the
+   * human plays Black, e.g. from a server sharing the file, are left alone.
+   */
+  private static GameJournal.Game lastUnfinishedGame() {
+    GameJournal journal = ChessBoardUI.journal();
+    if (journal == null) return null;
+    GameJournal.Game last = null;
+    for (GameJournal.Game g : journal.recovered().values()) {
+      if (g.human() == Color.WHITE && (last == null || g.id > last.id)) last = g;
+    }
+    for (GameJournal.Game g : journal.recovered().values()) {
+      if (g != last && g.human() == Color.WHITE) endGame(g.id);
+    }
+    return last;
+  }
+
+  private static void endGame(long id) {
+    try {
+      ChessBoardUI.journal().end(id);
+    } catch (IOException e) {
+      System.err.println("Could not journal game " + id + ": " + e);
+    }
+  }
 }
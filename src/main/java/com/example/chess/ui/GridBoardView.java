@@ -0,0 +1,80 @@
+package com.example.chess.ui;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Move;
+import com.example.chess.model.Piece;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+
+/** The board as a grid of 64 nodes, rebuilt on every change; moves are not animated. */
+final class GridBoardView implements BoardView {
+  private final GridPane grid = new GridPane();
+  private final SpriteAtlas atlas = SpriteAtlas.get();
+  private SquareListener listener = (r, c) -> {};
+
+  GridBoardView() {
+    grid.setAlignment(Pos.CENTER);
+  }
+
+  @Override
+  public Node getNode() { return grid; }
+
+  @Override
+  public void setOnSquareClicked(SquareListener listener) { this.listener = listener; }
+
+  /** Draws the 8x8 board with pieces and highlights. */
+  @Override
+  public void show(Board board, int selRow, int selCol, LegalMoves legal, Move hint) {
+    grid.getChildren().clear();
+    for (int r = 0; r < 8; r++) {
+      for (int c = 0; c < 8; c++) {
+        StackPane cell = new StackPane();
+        boolean light = (r + c) % 2 == 0;
+        Rectangle bg = new Rectangle(60, 60,
+            Paint.valueOf(light ? "#EEEED2" : "#769656"));
+
+        if (r == selRow && c == selCol) {
+          bg.setStroke(Paint.valueOf("red"));
+          bg.setStrokeWidth(3);
+        } else if (hint != null && (r == hint.fromRow && c == hint.fromCol
+                                    || r == hint.toRow && c == hint.toCol)) {
+          bg.setStroke(Paint.valueOf("blue"));
+          bg.setStrokeWidth(3);
+        }
+
+        cell.getChildren().add(bg);
+        if (selRow >= 0 && legal.isTarget(selRow, selCol, r, c)) {
+          cell.getChildren().add(new Circle(9, Paint.valueOf("#00000040")));
+        }
+
+        Piece p = board.getPiece(r, c);
+        if (p != null) {
+          ImageView iv = new ImageView(atlas.getImage());
+          iv.setViewport(atlas.viewport(SpriteAtlas.index(p)));
+          iv.setFitWidth(50);
+          iv.setFitHeight(50);
+          cell.getChildren().add(iv);
+        }
+
+        final int rr = r, cc = c;
+        cell.setOnMouseClicked(e -> listener.clicked(rr, cc));
+        grid.add(cell, c, r);
+      }
+    }
+  }
+
+  @Override
+  public void animate(Move m, Runnable done) {
+    done.run();
+  }
+
+  @Override
+  public boolean isAnimating() { return false; }
+}
@@ -0,0 +1,59 @@
+package com.example.chess.ui;
+
+import com.example.chess.logic.Board;
+import com.example.chess.model.Color;
+import com.example.chess.model.Move;
+import com.example.chess.model.PieceType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One side's legal moves, generated once per turn and indexed by
+ * from-square, so clicks and highlights are lookups rather than move
+ * generation. Squares are row * 8 + col, as in {@link Board}.
+ */
+final class LegalMoves {
+  /** Destination squares of each from-square, one bit per square. */
+  private final long[] targets = new long[64];
+  private final List<List<Move>> byFrom = new ArrayList<>(64);
+  private final boolean empty;
+
+  LegalMoves(Board board, Color side) {
+    for (int sq = 0; sq < 64; sq++) byFrom.add(new ArrayList<>(0));
+    List<Move> moves = board.generateLegalMoves(side);
+    for (Move m : moves) {
+      int from = m.fromRow * 8 + m.fromCol;
+      targets[from] |= 1L << (m.toRow * 8 + m.toCol);
+      byFrom.get(from).add(m);
+    }
+    empty = moves.isEmpty();
+  }
+
+  /** No legal moves: checkmate or stalemate. */
+  boolean isEmpty() { return empty; }
+
+  /** Whether the piece on (r, c) belongs to the side to move and has somewhere to go. */
+  boolean canMove(int r, int c) {
+    return targets[r * 8 + c] != 0;
+  }
+
+  boolean isTarget(int fromRow, int fromCol, int toRow, int toCol) {
+    return (targets[fromRow * 8 + fromCol] >>> (toRow * 8 + toCol) & 1) != 0;
+  }
+
+  /** Whether moving from one square to the other promotes, so a piece must be chosen. */
+  boolean isPromotion(int fromRow, int fromCol, int toRow, int toCol) {
+    Move m = find(fromRow, fromCol, toRow, toCol, PieceType.QUEEN);
+    return m != null;
+  }
+
+  /** The legal move between the squares with this promotion (null for none), or null. */
+  Move find(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
+    if (!isTarget(fromRow, fromCol, toRow, toCol)) return null;
+    for (Move m : byFrom.get(fromRow * 8 + fromCol)) {
+      if (m.toRow == toRow && m.toCol == toCol && m.promotion == promotion) return m;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.chess.ui;
+
+import com.example.chess.model.Color;
+import com.example.chess.model.Piece;
+import com.example.chess.model.PieceType;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The twelve piece images side by side in one image, decoded once for the
+ * whole application. Board views draw or clip their pieces from it, so a
+ * new game costs no decoding and no extra image memory.
+ */
+public final class SpriteAtlas {
+  private final WritableImage image;
+  private final int size;
+
+  private SpriteAtlas() {
+    Image[] sprites = new Image[12];
+    int max = 0;
+    for (int i = 0; i < sprites.length; i++) {
+      String name = (i < 6 ? "white_" : "black_") + PieceType.values()[i % 6].name().toLowerCase() + ".png";
+      try (InputStream in = SpriteAtlas.class.getResourceAsStream("/images/" + name)) {
+        if (in == null) throw new IOException("Missing resource /images/" + name);
+        sprites[i] = new Image(in);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      max = Math.max(max, (int) Math.max(sprites[i].getWidth(), sprites[i].getHeight()));
+    }
+    size = max;
+    image = new WritableImage(size * sprites.length, size);
+    for (int i = 0; i < sprites.length; i++) {
+      int w = (int) sprites[i].getWidth(), h = (int) sprites[i].getHeight();
+      // centred in its cell if smaller than the largest sprite
+      image.getPixelWriter().setPixels(i * size + (size - w) / 2, (size - h) / 2, w, h,
+          sprites[i].getPixelReader(), 0, 0);
+    }
+  }
+
+  private static final class Holder {
+    static final SpriteAtlas INSTANCE = new SpriteAtlas();
+  }
+
+  public static SpriteAtlas get() { return Holder.INSTANCE; }
+
+  /** Decodes the images now, e.g. from {@code Application.init}, so the first board does not wait. */
+  public static void preload() { get(); }
+
+  public Image getImage() { return image; }
+
+  /** Width and height of each sprite, in pixels. */
+  public int getSpriteSize() { return size; }
+
+  /** Sprite number of {@code p}, 0 to 11. */
+  public static int index(Piece p) {
+    return (p.getColor() == Color.WHITE ? 0 : 6) + p.getType().ordinal();
+  }
+
+  /** The part of {@link #getImage} holding sprite {@code index}. */
+  public Rectangle2D viewport(int index) {
+    return new Rectangle2D(index * size, 0, size, size);
+  }
+}